@@ -24,6 +24,12 @@ import java.lang.annotation.Target;
 /**
  * Indicates that a flyweight-style method should be used to bind exported
  * functions from a type into a JavaScriptObject.
+ * <p>
+ * A binding method may instead return a JavaScriptObject and accept only the
+ * peer object. Such a method creates a new JavaScriptObject bound to the peer.
+ * The exported functions are installed once on the prototype of a generated
+ * constructor rather than on each object.
+ * </p>
  */
 @Documented
 @MetaDataName("gwt.binding")
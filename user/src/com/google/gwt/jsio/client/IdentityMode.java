@@ -0,0 +1,47 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * Selects how the 1:1 identity mapping between a JavaScriptObject and its Java
+ * peer is stored. This may be applied to a {@link JSWrapper} type or to the
+ * peer type bound by a {@link JSFlyweightWrapper}. Types without this
+ * annotation use the value of the <code>jsio.identityMode</code>
+ * deferred-binding property, which defaults to {@link #EXPANDO}.
+ */
+@Documented
+@Target(ElementType.TYPE)
+public @interface IdentityMode {
+  /**
+   * Stores the peer in the
+   * {@value com.google.gwt.jsio.rebind.JSWrapperGenerator#BACKREF} property of
+   * the backing object.
+   */
+  String EXPANDO = "expando";
+
+  /**
+   * Stores the mapping in a side table so that the backing object is not
+   * modified. A WeakMap is used where the browser provides one; otherwise the
+   * mapping falls back to the expando property.
+   */
+  String TABLE = "table";
+
+  String value();
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+/**
+ * A list of double values backed by a JavaScript array, for use with JSWrapper
+ * when the underlying data type is an array of numbers. Unlike
+ * <code>JSList&lt;Double&gt;</code>, values are read and written without
+ * creating boxed objects.
+ */
+public interface JSDoubleList {
+  /**
+   * Append a value to the end of the list.
+   */
+  void addDouble(double value);
+
+  /**
+   * Remove all values from the list.
+   */
+  void clear();
+
+  /**
+   * Returns the value at the specified index.
+   * 
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  double getDouble(int index);
+
+  /**
+   * Removes the value at the specified index.
+   * 
+   * @return the value that was removed
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  double removeDouble(int index);
+
+  /**
+   * Replaces the value at the specified index.
+   * 
+   * @return the value previously at the index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  double setDouble(int index, double value);
+
+  /**
+   * Returns the number of values in the list.
+   */
+  int size();
+
+  /**
+   * Copies the contents of the list into a new Java array.
+   */
+  double[] toDoubleArray();
+}
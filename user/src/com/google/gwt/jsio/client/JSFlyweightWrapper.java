@@ -46,8 +46,7 @@ public interface JSFlyweightWrapper {
      *         previously set.
      */
     public static native Object getJavaPeer(JavaScriptObject obj) /*-{
-     // Must keep synchronized with JSFlyweightWrapperGenerator
-     return obj.__gwtPeer || null;
+     return @com.google.gwt.jsio.client.impl.IdentityTable::find(Lcom/google/gwt/core/client/JavaScriptObject;)(obj);
      }-*/;
   }
 }
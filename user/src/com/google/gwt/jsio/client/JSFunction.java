@@ -36,4 +36,14 @@ public abstract class JSFunction {
    */
   @SuppressWarnings("unused")
   private JavaScriptObject exportedFunction;
+
+  /**
+   * Releases the JavaScript function created for this object. A new function
+   * will be created if the object is passed to JavaScript again, so this
+   * should only be called once the function has been removed from any
+   * JavaScript APIs that it was registered with.
+   */
+  public void dispose() {
+    exportedFunction = null;
+  }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.jsio.client.impl.CountersImpl;
+
+import java.util.Map;
+
+/**
+ * Counts the work done by the JSIO runtime. Counting is compiled in only if
+ * the <code>jsio.counters</code> deferred-binding property is set to
+ * <code>on</code>; otherwise, snapshots are always empty. The counters are:
+ * <ul>
+ * <li><code>create:</code><i>type</i> - wrapper instances created</li>
+ * <li><code>peer:</code><i>type</i> - existing wrappers found for a
+ * JavaScriptObject</li>
+ * <li><code>fromJS:</code><i>type</i> and <code>toJS:</code><i>type</i> -
+ * Extractor conversions</li>
+ * <li><code>JSList.get</code>, <code>JSList.set</code>, and
+ * <code>JSList.splice</code> - JSList element access</li>
+ * <li><code>JSFunction:</code><i>type.method</i> - invocations of a
+ * JSFunction or exported method from JavaScript</li>
+ * </ul>
+ */
+public final class JSIOCounters {
+
+  /**
+   * Returns <code>true</code> if counting has been compiled in.
+   */
+  public static boolean isEnabled() {
+    return CountersImpl.get().isEnabled();
+  }
+
+  /**
+   * Sets all counters to zero.
+   */
+  public static void reset() {
+    CountersImpl.get().reset();
+  }
+
+  /**
+   * Returns the current value of every non-zero counter, sorted by name.
+   */
+  public static Map<String, Integer> snapshot() {
+    return CountersImpl.get().snapshot();
+  }
+
+  private JSIOCounters() {
+  }
+}
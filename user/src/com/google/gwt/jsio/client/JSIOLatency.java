@@ -0,0 +1,74 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.jsio.client.impl.LatencyImpl;
+
+/**
+ * Reports the time spent in imported JavaScript functions and in Java methods
+ * invoked from JavaScript. Timing is compiled in only if the
+ * <code>jsio.latency</code> deferred-binding property is set to
+ * <code>on</code>. Timings are kept in fixed-bucket histograms keyed by
+ * <code>import:</code><i>type.method</i> or
+ * <code>export:</code><i>type.method</i>, so percentiles are reported as the
+ * upper bound of the bucket that contains them.
+ */
+public final class JSIOLatency {
+
+  /**
+   * Returns a summary line for each key, giving the 50th, 90th, and 99th
+   * percentiles in milliseconds.
+   */
+  public static String dump() {
+    LatencyImpl impl = LatencyImpl.get();
+    StringBuffer toReturn = new StringBuffer();
+    for (String key : impl.getKeys()) {
+      toReturn.append(key);
+      toReturn.append(" p50<=").append(impl.getPercentile(key, 50));
+      toReturn.append(" p90<=").append(impl.getPercentile(key, 90));
+      toReturn.append(" p99<=").append(impl.getPercentile(key, 99));
+      toReturn.append("\n");
+    }
+    return toReturn.toString();
+  }
+
+  /**
+   * Returns an upper bound, in milliseconds, for a percentile of the timings
+   * recorded against <code>key</code>, or <code>-1</code> if there are none.
+   * 
+   * @param percentile a value between 0 and 100
+   */
+  public static double getPercentile(String key, double percentile) {
+    return LatencyImpl.get().getPercentile(key, percentile);
+  }
+
+  /**
+   * Returns <code>true</code> if timing has been compiled in.
+   */
+  public static boolean isEnabled() {
+    return LatencyImpl.get().isEnabled();
+  }
+
+  /**
+   * Discards all recorded timings.
+   */
+  public static void reset() {
+    LatencyImpl.get().reset();
+  }
+
+  private JSIOLatency() {
+  }
+}
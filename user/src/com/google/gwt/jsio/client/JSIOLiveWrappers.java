@@ -0,0 +1,93 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.jsio.client.impl.WrapperRegistryImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the generated JSWrapper instances that have been created but not
+ * disposed. Tracking is compiled in only if the
+ * <code>jsio.liveWrappers</code> deferred-binding property is set to
+ * <code>on</code>.
+ * <p>
+ * The counts are the number of wrappers created minus the number disposed.
+ * They do not show whether a wrapper is still reachable: the registry holds a
+ * strong reference to every wrapper that has not been disposed, so enabling
+ * it prevents those wrappers from ever being collected. It is intended for
+ * finding code paths that never dispose their wrappers, not for production
+ * use.
+ * </p>
+ * <p>
+ * Wrappers are counted by type and by the allocation tag that was set with
+ * {@link #setTag(String)} when they were created, which allows leaks to be
+ * attributed to the part of the application that created the wrappers.
+ * </p>
+ */
+public final class JSIOLiveWrappers {
+
+  /**
+   * Returns the number of wrappers created but not disposed, keyed by type
+   * name and allocation tag.
+   */
+  public static Map<String, Integer> getCounts() {
+    return WrapperRegistryImpl.get().getCounts();
+  }
+
+  /**
+   * Returns <code>true</code> if tracking has been compiled in.
+   */
+  public static boolean isEnabled() {
+    return WrapperRegistryImpl.get().isEnabled();
+  }
+
+  /**
+   * Returns a line for each type and tag, with the most numerous first.
+   */
+  public static String report() {
+    List<Map.Entry<String, Integer>> entries = new ArrayList<Map.Entry<String, Integer>>(
+        getCounts().entrySet());
+    Collections.sort(entries, new Comparator<Map.Entry<String, Integer>>() {
+      public int compare(Map.Entry<String, Integer> a,
+          Map.Entry<String, Integer> b) {
+        return b.getValue().compareTo(a.getValue());
+      }
+    });
+
+    StringBuffer toReturn = new StringBuffer();
+    for (Map.Entry<String, Integer> entry : entries) {
+      toReturn.append(entry.getValue()).append(" ").append(entry.getKey());
+      toReturn.append("\n");
+    }
+    return toReturn.toString();
+  }
+
+  /**
+   * Sets the tag applied to wrappers created from now on, or clears it if
+   * <code>tag</code> is <code>null</code>.
+   */
+  public static void setTag(String tag) {
+    WrapperRegistryImpl.get().setTag(tag);
+  }
+
+  private JSIOLiveWrappers() {
+  }
+}
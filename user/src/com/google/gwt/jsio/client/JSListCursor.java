@@ -0,0 +1,128 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Walks the elements of a {@link JSList} of wrappers using a single accessor
+ * wrapper, which is re-pointed at each element with
+ * {@link JSWrapper#rebind(JavaScriptObject)}. Unlike <code>JSList.get()</code>
+ * or the list's iterator, no wrapper is created or looked up per element.
+ * 
+ * <pre>
+ * JSListCursor&lt;Row&gt; cursor = new JSListCursor&lt;Row&gt;(
+ *     (Row) GWT.create(Row.class));
+ * for (cursor.reset(table.getRows()); cursor.next();) {
+ *   total += cursor.get().getValue();
+ * }
+ * </pre>
+ * 
+ * The accessor is not the identity peer of the elements, and is only valid
+ * until the next call to {@link #next()}. The list must not be modified while
+ * it is being walked.
+ * 
+ * @param <T> the type of the list's elements
+ */
+public class JSListCursor<T extends JSWrapper<T>> {
+
+  private final T accessor;
+
+  private JavaScriptObject array;
+
+  private int index;
+
+  private int size;
+
+  private static native JavaScriptObject getNative(JavaScriptObject array,
+      int index) /*-{
+    return array[index];
+  }-*/;
+
+  private static native int sizeNative(JavaScriptObject array) /*-{
+    return array.length;
+  }-*/;
+
+  /**
+   * Constructs a cursor that uses <code>accessor</code> to read the elements.
+   * The accessor is detached from its current object and should not be used
+   * elsewhere while the cursor is in use; it may be obtained from a
+   * {@link JSWrapperPool}.
+   */
+  public JSListCursor(T accessor) {
+    this.accessor = accessor;
+    accessor.dispose();
+    reset((JavaScriptObject) null);
+  }
+
+  /**
+   * Returns the accessor, pointed at the current element.
+   */
+  public T get() {
+    return accessor;
+  }
+
+  /**
+   * Returns the index of the current element.
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Returns the current element, for use with a {@link JSFlyweightWrapper}.
+   */
+  public JavaScriptObject getObject() {
+    return accessor.getJavaScriptObject();
+  }
+
+  /**
+   * Advances to the next element.
+   * 
+   * @return <code>false</code> if there are no more elements
+   */
+  public boolean next() {
+    if (++index >= size) {
+      index = size;
+      accessor.rebind(null);
+      return false;
+    }
+    accessor.rebind(getNative(array, index));
+    return true;
+  }
+
+  /**
+   * Positions the cursor before the first element of a JavaScript array.
+   */
+  public JSListCursor<T> reset(JavaScriptObject array) {
+    this.array = array;
+    index = -1;
+    size = array == null ? 0 : sizeNative(array);
+    accessor.rebind(null);
+    return this;
+  }
+
+  /**
+   * Positions the cursor before the first element of <code>list</code>, which
+   * must have been created by JSIO.
+   */
+  public JSListCursor<T> reset(JSList<T> list) {
+    if (!(list instanceof JSWrapper)) {
+      throw new IllegalArgumentException("The list is not backed by a JavaScript array");
+    }
+    return reset(((JSWrapper<?>) list).getJavaScriptObject());
+  }
+}
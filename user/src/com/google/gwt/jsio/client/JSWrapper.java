@@ -29,6 +29,13 @@ import com.google.gwt.jsio.client.impl.Extractor;
 @Deprecated
 public interface JSWrapper<T extends JSWrapper<T>> {
 
+  /**
+   * Release the JavaScriptObject that is backing the wrapper, removing its
+   * reference back to the wrapper. The wrapper must not be used again unless
+   * it is given a new object with {@link #setJavaScriptObject}.
+   */
+  void dispose();
+
   /**
    * Used by JSList.
    */
@@ -39,6 +46,23 @@ public interface JSWrapper<T extends JSWrapper<T>> {
    */
   JavaScriptObject getJavaScriptObject();
 
+  /**
+   * Point the wrapper at a different JavaScriptObject without the checks and
+   * initialization performed by {@link #setJavaScriptObject}. The object does
+   * not receive a reference back to the wrapper, and disposing or re-pointing
+   * the wrapper later leaves the object's identity untouched. This is intended
+   * for pooled wrappers, such as those managed by {@link JSWrapperPool}.
+   * <p>
+   * Missing properties are not given default values. Unless the type is
+   * annotated with {@link LazyDefaults}, a getter for a primitive property
+   * that the object lacks returns <code>undefined</code> rather than the
+   * default value.
+   * </p>
+   * 
+   * @return the instance of the JSWrapper.
+   */
+  T rebind(JavaScriptObject obj);
+
   /**
    * Set the JavaScriptObject to be wrapped by the generated class.
    * 
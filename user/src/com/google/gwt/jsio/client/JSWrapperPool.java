@@ -0,0 +1,85 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pool of wrappers of a single type that are re-pointed with
+ * {@link JSWrapper#rebind(JavaScriptObject)} instead of being created for each
+ * JavaScriptObject. This allows a view that shows a window onto a large number
+ * of objects, such as a virtualized table, to scroll without allocating
+ * wrappers.
+ * 
+ * <pre>
+ * JSWrapperPool&lt;Row&gt; rows = new JSWrapperPool&lt;Row&gt;() {
+ *   protected Row create() {
+ *     return (Row) GWT.create(Row.class);
+ *   }
+ * };
+ * 
+ * Row row = rows.acquire(obj);
+ * ...
+ * rows.release(row);
+ * </pre>
+ * 
+ * Pooled wrappers are not the identity peers of the objects they are pointed
+ * at, and should not be retained after they have been released.
+ * 
+ * @param <T> the type of wrapper in the pool
+ */
+public abstract class JSWrapperPool<T extends JSWrapper<T>> {
+
+  private final List<T> free = new ArrayList<T>();
+
+  /**
+   * Returns a wrapper pointed at <code>obj</code>, creating one only if the
+   * pool is empty.
+   */
+  public T acquire(JavaScriptObject obj) {
+    T wrapper;
+    if (free.isEmpty()) {
+      wrapper = create();
+      // Detach the wrapper from its initial object
+      wrapper.dispose();
+    } else {
+      wrapper = free.remove(free.size() - 1);
+    }
+    return wrapper.rebind(obj);
+  }
+
+  /**
+   * Returns the number of wrappers available for reuse.
+   */
+  public int getFreeCount() {
+    return free.size();
+  }
+
+  /**
+   * Returns a wrapper to the pool.
+   */
+  public void release(T wrapper) {
+    free.add(wrapper.rebind(null));
+  }
+
+  /**
+   * Creates a new wrapper, typically with <code>GWT.create()</code>.
+   */
+  protected abstract T create();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * Applies default values when a property is read instead of when a
+ * JavaScriptObject is attached to the wrapper. Attaching an object becomes a
+ * constant-time operation that does not modify the object, except to install
+ * {@link Exported} functions. A missing property reads as the same default
+ * value that would otherwise have been stored. Missing list-valued properties
+ * are stored on first read so that changes to the returned list are retained.
+ * Methods named <code>hasFoo()</code> may be declared to test for the presence
+ * of a property.
+ */
+@Documented
+@Target(ElementType.TYPE)
+public @interface LazyDefaults {
+}
@@ -56,6 +56,13 @@ public abstract class AbstractJSListWrapper<T> extends AbstractList<T> {
     arr = JavaScriptObject.createArray();
   }
 
+  /**
+   * Releases the backing array.
+   */
+  public void dispose() {
+    arr = null;
+  }
+
   /**
    * Return the JSONObject that is backing the wrapper. Modifications to the
    * returned JSONObject are not required to be correctly reflected in the
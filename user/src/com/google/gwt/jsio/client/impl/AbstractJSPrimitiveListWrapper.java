@@ -0,0 +1,76 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.JSONWrapperException;
+
+/**
+ * Common implementation details for the primitive-specialized lists, such as
+ * {@link JSIntListWrapper}.
+ */
+public abstract class AbstractJSPrimitiveListWrapper {
+
+  protected static native int sizeNative(JavaScriptObject array) /*-{
+    return array.length;
+  }-*/;
+
+  protected static native void spliceNative(JavaScriptObject array, int from,
+      int length) /*-{
+    array.splice(from, length);
+  }-*/;
+
+  protected JavaScriptObject arr;
+
+  protected AbstractJSPrimitiveListWrapper(JavaScriptObject arr) {
+    this.arr = arr;
+  }
+
+  public void clear() {
+    arr = JavaScriptObject.createArray();
+  }
+
+  /**
+   * Releases the backing array.
+   */
+  public void dispose() {
+    arr = null;
+  }
+
+  /**
+   * Return the JavaScriptObject that is backing the wrapper.
+   */
+  public JavaScriptObject getJavaScriptObject() {
+    return arr;
+  }
+
+  /**
+   * Unimplemented.
+   */
+  public void setJSONData(String data) throws JSONWrapperException {
+    throw new JSONWrapperException("Unimplemented");
+  }
+
+  public int size() {
+    return sizeNative(arr);
+  }
+
+  protected void checkIndex(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException();
+    }
+  }
+}
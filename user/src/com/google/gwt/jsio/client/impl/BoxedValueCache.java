@@ -0,0 +1,202 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+/**
+ * Caches boxed values so that reading the same small numbers, flags, and codes
+ * from JavaScript objects repeatedly does not create new objects. Integral
+ * values within a configurable range are cached for every boxed type used by
+ * the generated code and the Extractors. When the <code>jsio.counters</code>
+ * deferred-binding property is <code>on</code>, counters record how often a
+ * cached instance was returned.
+ */
+public final class BoxedValueCache {
+  /**
+   * The largest integral value cached by default.
+   */
+  public static final int DEFAULT_HIGH = 1023;
+
+  /**
+   * The smallest integral value cached by default.
+   */
+  public static final int DEFAULT_LOW = -128;
+
+  private static final String HIT = "BoxedValueCache.hit";
+  private static final String MISS = "BoxedValueCache.miss";
+
+  private static final Byte[] bytes = new Byte[256];
+  private static Character[] characters;
+  private static Double[] doubles;
+  private static Float[] floats;
+  private static int high = DEFAULT_HIGH;
+  private static Integer[] integers;
+  private static int low = DEFAULT_LOW;
+  private static Short[] shorts;
+
+  /**
+   * Returns the number of boxed values served from the cache since the last
+   * call to {@link #resetCounters()}.
+   */
+  public static int getHitCount() {
+    return CountersImpl.get().getCount(HIT);
+  }
+
+  /**
+   * Returns the fraction of boxed values served from the cache, or
+   * <code>0</code> if no values have been requested.
+   */
+  public static double getHitRate() {
+    int hits = getHitCount();
+    int total = hits + getMissCount();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  /**
+   * Returns the number of boxed values that had to be created since the last
+   * call to {@link #resetCounters()}.
+   */
+  public static int getMissCount() {
+    return CountersImpl.get().getCount(MISS);
+  }
+
+  public static void resetCounters() {
+    CountersImpl.get().reset(HIT);
+    CountersImpl.get().reset(MISS);
+  }
+
+  /**
+   * Sets the range of integral values that will be cached and discards any
+   * previously cached values. The default range is
+   * [{@value #DEFAULT_LOW}, {@value #DEFAULT_HIGH}]. Byte values are always
+   * cached.
+   * 
+   * @param low the smallest value to cache
+   * @param high the largest value to cache
+   */
+  public static void setRange(int low, int high) {
+    if (low > high) {
+      throw new IllegalArgumentException("low > high");
+    }
+    BoxedValueCache.low = low;
+    BoxedValueCache.high = high;
+    characters = null;
+    doubles = null;
+    floats = null;
+    integers = null;
+    shorts = null;
+  }
+
+  static Byte valueOf(byte b) {
+    int index = b + 128;
+    Byte toReturn = bytes[index];
+    if (toReturn != null) {
+      CountersImpl.count(HIT);
+      return toReturn;
+    }
+    CountersImpl.count(MISS);
+    return bytes[index] = new Byte(b);
+  }
+
+  static Character valueOf(char c) {
+    if (c >= low && c <= high) {
+      if (characters == null) {
+        characters = new Character[high - low + 1];
+      }
+      Character toReturn = characters[c - low];
+      if (toReturn != null) {
+        CountersImpl.count(HIT);
+        return toReturn;
+      }
+      CountersImpl.count(MISS);
+      return characters[c - low] = new Character(c);
+    }
+    CountersImpl.count(MISS);
+    return new Character(c);
+  }
+
+  static Double valueOf(double d) {
+    int i = (int) d;
+    if (i == d && i >= low && i <= high && (i != 0 || 1 / d > 0)) {
+      if (doubles == null) {
+        doubles = new Double[high - low + 1];
+      }
+      Double toReturn = doubles[i - low];
+      if (toReturn != null) {
+        CountersImpl.count(HIT);
+        return toReturn;
+      }
+      CountersImpl.count(MISS);
+      return doubles[i - low] = new Double(d);
+    }
+    CountersImpl.count(MISS);
+    return new Double(d);
+  }
+
+  static Float valueOf(float f) {
+    int i = (int) f;
+    if (i == f && i >= low && i <= high && (i != 0 || 1 / f > 0)) {
+      if (floats == null) {
+        floats = new Float[high - low + 1];
+      }
+      Float toReturn = floats[i - low];
+      if (toReturn != null) {
+        CountersImpl.count(HIT);
+        return toReturn;
+      }
+      CountersImpl.count(MISS);
+      return floats[i - low] = new Float(f);
+    }
+    CountersImpl.count(MISS);
+    return new Float(f);
+  }
+
+  static Integer valueOf(int i) {
+    if (i >= low && i <= high) {
+      if (integers == null) {
+        integers = new Integer[high - low + 1];
+      }
+      Integer toReturn = integers[i - low];
+      if (toReturn != null) {
+        CountersImpl.count(HIT);
+        return toReturn;
+      }
+      CountersImpl.count(MISS);
+      return integers[i - low] = new Integer(i);
+    }
+    CountersImpl.count(MISS);
+    return new Integer(i);
+  }
+
+  static Short valueOf(short s) {
+    if (s >= low && s <= high) {
+      if (shorts == null) {
+        shorts = new Short[high - low + 1];
+      }
+      Short toReturn = shorts[s - low];
+      if (toReturn != null) {
+        CountersImpl.count(HIT);
+        return toReturn;
+      }
+      CountersImpl.count(MISS);
+      return shorts[s - low] = new Short(s);
+    }
+    CountersImpl.count(MISS);
+    return new Short(s);
+  }
+
+  private BoxedValueCache() {
+  }
+}
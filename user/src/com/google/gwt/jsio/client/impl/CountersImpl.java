@@ -0,0 +1,87 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.GWT;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Receives the runtime counters reported by {@link com.google.gwt.jsio.client.JSIOCounters}. The
+ * implementation is selected by the <code>jsio.counters</code>
+ * deferred-binding property. This default implementation discards all counts
+ * so that calls to it are removed by the compiler.
+ */
+public class CountersImpl {
+
+  static final CountersImpl INSTANCE = (CountersImpl) GWT.create(CountersImpl.class);
+
+  /**
+   * Increments the named counter.
+   */
+  public static void count(String key) {
+    INSTANCE.increment(key);
+  }
+
+  /**
+   * Increments the named counter if <code>peer</code> is not
+   * <code>null</code>. This allows a peer lookup to be counted without
+   * evaluating it twice.
+   * 
+   * @return <code>peer</code>
+   */
+  public static Object countPeer(Object peer, String key) {
+    if (peer != null) {
+      INSTANCE.increment(key);
+    }
+    return peer;
+  }
+
+  /**
+   * Returns the counters implementation.
+   */
+  public static CountersImpl get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the value of the named counter.
+   */
+  public int getCount(String key) {
+    return 0;
+  }
+
+  protected void increment(String key) {
+  }
+
+  public boolean isEnabled() {
+    return false;
+  }
+
+  public void reset() {
+  }
+
+  /**
+   * Resets the named counter.
+   */
+  public void reset(String key) {
+  }
+
+  public Map<String, Integer> snapshot() {
+    return new TreeMap<String, Integer>();
+  }
+}
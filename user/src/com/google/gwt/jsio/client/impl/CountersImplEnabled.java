@@ -0,0 +1,69 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the runtime counters. Selected by setting the
+ * <code>jsio.counters</code> deferred-binding property to <code>on</code>.
+ */
+public class CountersImplEnabled extends CountersImpl {
+
+  private final Map<String, int[]> counts = new HashMap<String, int[]>();
+
+  @Override
+  public int getCount(String key) {
+    int[] count = counts.get(key);
+    return count == null ? 0 : count[0];
+  }
+
+  @Override
+  protected void increment(String key) {
+    int[] count = counts.get(key);
+    if (count == null) {
+      count = new int[1];
+      counts.put(key, count);
+    }
+    count[0]++;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void reset() {
+    counts.clear();
+  }
+
+  @Override
+  public void reset(String key) {
+    counts.remove(key);
+  }
+
+  @Override
+  public Map<String, Integer> snapshot() {
+    Map<String, Integer> toReturn = new TreeMap<String, Integer>();
+    for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+      toReturn.put(entry.getKey(), entry.getValue()[0]);
+    }
+    return toReturn;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Maintains the JSO to Java peer mapping for types that use the
+ * {@link com.google.gwt.jsio.client.IdentityMode#TABLE} identity mode.
+ */
+public final class IdentityTable {
+  @SuppressWarnings("unused")
+  private static final JavaScriptObject table = createTable();
+
+  /**
+   * Returns the peer of <code>jso</code> regardless of the identity mode that
+   * was used to record it.
+   */
+  public static native Object find(JavaScriptObject jso) /*-{
+    // Must keep synchronized with JSWrapperGenerator.BACKREF
+    var table = @com.google.gwt.jsio.client.impl.IdentityTable::table;
+    return (table && table.get(jso)) || jso.__gwtPeer || null;
+  }-*/;
+
+  public static native Object get(JavaScriptObject jso) /*-{
+    var table = @com.google.gwt.jsio.client.impl.IdentityTable::table;
+    return (table ? table.get(jso) : jso.__gwtPeer) || null;
+  }-*/;
+
+  public static native void put(JavaScriptObject jso, Object peer) /*-{
+    var table = @com.google.gwt.jsio.client.impl.IdentityTable::table;
+    if (table) {
+      table.set(jso, peer);
+    } else {
+      jso.__gwtPeer = peer;
+    }
+  }-*/;
+
+  public static native void remove(JavaScriptObject jso) /*-{
+    var table = @com.google.gwt.jsio.client.impl.IdentityTable::table;
+    if (table) {
+      table['delete'](jso);
+    } else {
+      // Don't delete the property, so that the object's shape is retained
+      jso.__gwtPeer = null;
+    }
+  }-*/;
+
+  private static native JavaScriptObject createTable() /*-{
+    return typeof WeakMap == 'function' ? new WeakMap() : null;
+  }-*/;
+
+  private IdentityTable() {
+  }
+}
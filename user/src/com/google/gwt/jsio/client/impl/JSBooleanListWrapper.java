@@ -0,0 +1,122 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.JSBooleanList;
+import com.google.gwt.jsio.client.JSWrapper;
+
+/**
+ * An implementation of {@link JSBooleanList} that operates directly on a JS array
+ * of boolean values.
+ */
+public final class JSBooleanListWrapper extends AbstractJSPrimitiveListWrapper
+    implements JSBooleanList, JSWrapper<JSBooleanListWrapper> {
+
+  /**
+   * Used with nested lists.
+   */
+  public static final Extractor<JSBooleanListWrapper> EXTRACTOR = new Extractor<JSBooleanListWrapper>() {
+    public JSBooleanListWrapper fromJS(JavaScriptObject obj) {
+      return create(obj);
+    }
+
+    public JavaScriptObject toJS(JSBooleanListWrapper o) {
+      return o.getJavaScriptObject();
+    }
+  };
+
+  /**
+   * Used by JSNI code to wrap existing arrays.
+   */
+  public static JSBooleanListWrapper create(JavaScriptObject arr) {
+    return new JSBooleanListWrapper(arr);
+  }
+
+  private static native void addNative(JavaScriptObject array, boolean value) /*-{
+    array.push(value);
+  }-*/;
+
+  private static native boolean getNative(JavaScriptObject array, int index) /*-{
+    return !!array[index];
+  }-*/;
+
+  private static native void setNative(JavaScriptObject array, int index,
+      boolean value) /*-{
+    array[index] = value;
+  }-*/;
+
+  public JSBooleanListWrapper() {
+    super(JavaScriptObject.createArray());
+  }
+
+  private JSBooleanListWrapper(JavaScriptObject arr) {
+    super(arr);
+  }
+
+  public void addBoolean(boolean value) {
+    addNative(arr, value);
+  }
+
+  public Extractor<JSBooleanListWrapper> getExtractor() {
+    return EXTRACTOR;
+  }
+
+  public boolean getBoolean(int index) {
+    checkIndex(index);
+    return getNative(arr, index);
+  }
+
+  /**
+   * Points the wrapper at a different array.
+   */
+  public JSBooleanListWrapper rebind(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
+  public boolean removeBoolean(int index) {
+    checkIndex(index);
+    boolean toReturn = getNative(arr, index);
+    spliceNative(arr, index, 1);
+    return toReturn;
+  }
+
+  public boolean setBoolean(int index, boolean value) {
+    checkIndex(index);
+    boolean toReturn = getNative(arr, index);
+    setNative(arr, index, value);
+    return toReturn;
+  }
+
+  /**
+   * Convenience setter for generated subclasses to be able to initialize
+   * newly-created instances without another parsing cycle.
+   */
+  public JSBooleanListWrapper setJavaScriptObject(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
+  public boolean[] toBooleanArray() {
+    int size = size();
+    boolean[] toReturn = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      toReturn[i] = getNative(arr, i);
+    }
+    return toReturn;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.JSDoubleList;
+import com.google.gwt.jsio.client.JSWrapper;
+
+/**
+ * An implementation of {@link JSDoubleList} that operates directly on a JS array
+ * of double values.
+ */
+public final class JSDoubleListWrapper extends AbstractJSPrimitiveListWrapper
+    implements JSDoubleList, JSWrapper<JSDoubleListWrapper> {
+
+  /**
+   * Used with nested lists.
+   */
+  public static final Extractor<JSDoubleListWrapper> EXTRACTOR = new Extractor<JSDoubleListWrapper>() {
+    public JSDoubleListWrapper fromJS(JavaScriptObject obj) {
+      return create(obj);
+    }
+
+    public JavaScriptObject toJS(JSDoubleListWrapper o) {
+      return o.getJavaScriptObject();
+    }
+  };
+
+  /**
+   * Used by JSNI code to wrap existing arrays.
+   */
+  public static JSDoubleListWrapper create(JavaScriptObject arr) {
+    return new JSDoubleListWrapper(arr);
+  }
+
+  private static native void addNative(JavaScriptObject array, double value) /*-{
+    array.push(value);
+  }-*/;
+
+  private static native double getNative(JavaScriptObject array, int index) /*-{
+    return array[index];
+  }-*/;
+
+  private static native void setNative(JavaScriptObject array, int index,
+      double value) /*-{
+    array[index] = value;
+  }-*/;
+
+  public JSDoubleListWrapper() {
+    super(JavaScriptObject.createArray());
+  }
+
+  private JSDoubleListWrapper(JavaScriptObject arr) {
+    super(arr);
+  }
+
+  public void addDouble(double value) {
+    addNative(arr, value);
+  }
+
+  public Extractor<JSDoubleListWrapper> getExtractor() {
+    return EXTRACTOR;
+  }
+
+  public double getDouble(int index) {
+    checkIndex(index);
+    return getNative(arr, index);
+  }
+
+  /**
+   * Points the wrapper at a different array.
+   */
+  public JSDoubleListWrapper rebind(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
+  public double removeDouble(int index) {
+    checkIndex(index);
+    double toReturn = getNative(arr, index);
+    spliceNative(arr, index, 1);
+    return toReturn;
+  }
+
+  public double setDouble(int index, double value) {
+    checkIndex(index);
+    double toReturn = getNative(arr, index);
+    setNative(arr, index, value);
+    return toReturn;
+  }
+
+  /**
+   * Convenience setter for generated subclasses to be able to initialize
+   * newly-created instances without another parsing cycle.
+   */
+  public JSDoubleListWrapper setJavaScriptObject(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
+  public double[] toDoubleArray() {
+    int size = size();
+    double[] toReturn = new double[size];
+    for (int i = 0; i < size; i++) {
+      toReturn[i] = getNative(arr, i);
+    }
+    return toReturn;
+  }
+}
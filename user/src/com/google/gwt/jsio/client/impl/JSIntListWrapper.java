@@ -0,0 +1,122 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.JSIntList;
+import com.google.gwt.jsio.client.JSWrapper;
+
+/**
+ * An implementation of {@link JSIntList} that operates directly on a JS array
+ * of int values.
+ */
+public final class JSIntListWrapper extends AbstractJSPrimitiveListWrapper
+    implements JSIntList, JSWrapper<JSIntListWrapper> {
+
+  /**
+   * Used with nested lists.
+   */
+  public static final Extractor<JSIntListWrapper> EXTRACTOR = new Extractor<JSIntListWrapper>() {
+    public JSIntListWrapper fromJS(JavaScriptObject obj) {
+      return create(obj);
+    }
+
+    public JavaScriptObject toJS(JSIntListWrapper o) {
+      return o.getJavaScriptObject();
+    }
+  };
+
+  /**
+   * Used by JSNI code to wrap existing arrays.
+   */
+  public static JSIntListWrapper create(JavaScriptObject arr) {
+    return new JSIntListWrapper(arr);
+  }
+
+  private static native void addNative(JavaScriptObject array, int value) /*-{
+    array.push(value);
+  }-*/;
+
+  private static native int getNative(JavaScriptObject array, int index) /*-{
+    return array[index];
+  }-*/;
+
+  private static native void setNative(JavaScriptObject array, int index,
+      int value) /*-{
+    array[index] = value;
+  }-*/;
+
+  public JSIntListWrapper() {
+    super(JavaScriptObject.createArray());
+  }
+
+  private JSIntListWrapper(JavaScriptObject arr) {
+    super(arr);
+  }
+
+  public void addInt(int value) {
+    addNative(arr, value);
+  }
+
+  public Extractor<JSIntListWrapper> getExtractor() {
+    return EXTRACTOR;
+  }
+
+  public int getInt(int index) {
+    checkIndex(index);
+    return getNative(arr, index);
+  }
+
+  /**
+   * Points the wrapper at a different array.
+   */
+  public JSIntListWrapper rebind(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
+  public int removeInt(int index) {
+    checkIndex(index);
+    int toReturn = getNative(arr, index);
+    spliceNative(arr, index, 1);
+    return toReturn;
+  }
+
+  public int setInt(int index, int value) {
+    checkIndex(index);
+    int toReturn = getNative(arr, index);
+    setNative(arr, index, value);
+    return toReturn;
+  }
+
+  /**
+   * Convenience setter for generated subclasses to be able to initialize
+   * newly-created instances without another parsing cycle.
+   */
+  public JSIntListWrapper setJavaScriptObject(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
+  public int[] toIntArray() {
+    int size = size();
+    int[] toReturn = new int[size];
+    for (int i = 0; i < size; i++) {
+      toReturn[i] = getNative(arr, i);
+    }
+    return toReturn;
+  }
+}
@@ -80,6 +80,7 @@ public final class JSListWrapper<T> extends AbstractJSListWrapper<T> implements
     if (index < 0 || index > size()) {
       throw new IndexOutOfBoundsException();
     }
+    CountersImpl.count("JSList.splice");
     splice(arr, index, 0, extractor.toJS(object));
   }
 
@@ -89,6 +90,7 @@ public final class JSListWrapper<T> extends AbstractJSListWrapper<T> implements
       throw new IndexOutOfBoundsException();
     }
 
+    CountersImpl.count("JSList.get");
     Object toReturn = getNative(arr, index);
     if (toReturn instanceof JavaScriptObject) {
       return extractor.fromJS((JavaScriptObject) toReturn);
@@ -101,12 +103,21 @@ public final class JSListWrapper<T> extends AbstractJSListWrapper<T> implements
     return new WrappingExtractor<T>(extractor);
   }
 
+  /**
+   * Points the wrapper at a different array.
+   */
+  public JSListWrapper<T> rebind(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
   @Override
   public T remove(int index) {
     if (index < 0 || index > size()) {
       throw new IndexOutOfBoundsException();
     }
 
+    CountersImpl.count("JSList.splice");
     Object toReturn = splice(arr, index, 1);
     if (toReturn instanceof JavaScriptObject) {
       return extractor.fromJS((JavaScriptObject) toReturn);
@@ -121,6 +132,7 @@ public final class JSListWrapper<T> extends AbstractJSListWrapper<T> implements
       throw new IndexOutOfBoundsException();
     }
 
+    CountersImpl.count("JSList.set");
     Object toReturn = splice(arr, index, 1, o);
     if (toReturn instanceof JavaScriptObject) {
       return extractor.fromJS((JavaScriptObject) toReturn);
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptException;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.JSONWrapperException;
+
+/**
+ * Converts JSON text into a JavaScriptObject for use by
+ * {@link com.google.gwt.jsio.client.JSWrapper#setJSONData}. The implementation
+ * is selected by the <code>jsio.jsonParser</code> deferred-binding property.
+ * This default implementation uses the browser's native
+ * <code>JSON.parse</code> function and falls back to the validating parser
+ * when it is unavailable.
+ */
+public class JSONParserImpl {
+
+  /**
+   * Parse the JSON text into a JavaScriptObject. Primitive values are boxed so
+   * that they may be wrapped.
+   * 
+   * @throws JSONWrapperException if the text is not acceptable to the parser
+   */
+  public final JavaScriptObject parse(String jsonString)
+      throws JSONWrapperException {
+    try {
+      return parseNative(jsonString);
+    } catch (JavaScriptException e) {
+      throw new JSONWrapperException("Unable to parse JSON data", e);
+    }
+  }
+
+  /**
+   * Subclasses return the value represented by the JSON text, throwing a
+   * JavaScript exception if the text is not acceptable. Primitive values must
+   * be returned as their Object equivalents.
+   */
+  protected native JavaScriptObject parseNative(String jsonString) /*-{
+    if (typeof JSON == 'object' && typeof JSON.parse == 'function') {
+      var x = JSON.parse(jsonString);
+      return x == null ? null : Object(x);
+    }
+    return this.@com.google.gwt.jsio.client.impl.JSONParserImpl::parseValidated(Ljava/lang/String;)(jsonString);
+  }-*/;
+
+  /**
+   * Checks the text against the JSON grammar before evaluating it, so that no
+   * JavaScript expressions other than JSON literals will be executed.
+   */
+  protected final native JavaScriptObject parseValidated(String jsonString) /*-{
+    // Line and paragraph separators are legal in JSON strings, but not in
+    // JavaScript string literals.
+    jsonString = jsonString.replace(new RegExp('[\\u2028\\u2029]', 'g'),
+      function(c) {
+        return '\\u' + c.charCodeAt(0).toString(16);
+      });
+
+    if (/^[\],:{}\s]*$/.test(jsonString.
+        replace(/\\(?:["\\\/bfnrt]|u[0-9a-fA-F]{4})/g, '@').
+        replace(/"[^"\\\n\r]*"|true|false|null|-?\d+(?:\.\d*)?(?:[eE][+\-]?\d+)?/g, ']').
+        replace(/(?:^|:|,)(?:\s*\[)+/g, ''))) {
+      var x = eval('(' + jsonString + ')');
+      return x == null ? null : Object(x);
+    }
+    throw new SyntaxError('Invalid JSON data');
+  }-*/;
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Evaluates the JSON text as a JavaScript expression without any validation.
+ * This accepts non-standard input, such as unquoted property names, but will
+ * execute arbitrary code. It must be explicitly selected by setting the
+ * <code>jsio.jsonParser</code> property to <code>eval</code>.
+ */
+public class JSONParserImplEval extends JSONParserImpl {
+  @Override
+  protected native JavaScriptObject parseNative(String jsonString) /*-{
+    var x = eval('(' + jsonString + ')');
+    return x == null ? null : Object(x);
+  }-*/;
+}
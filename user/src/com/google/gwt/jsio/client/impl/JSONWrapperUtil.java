@@ -15,7 +15,9 @@
  */
 package com.google.gwt.jsio.client.impl;
 
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.JSONWrapperException;
 import com.google.gwt.jsio.client.JSOpaque;
 import com.google.gwt.jsio.client.MultipleWrapperException;
 
@@ -118,45 +120,44 @@ public class JSONWrapperUtil {
      }-*/;
   };
 
+  private static final JSONParserImpl PARSER = (JSONParserImpl) GWT.create(JSONParserImpl.class);
+
   public static Boolean createWrapper(boolean b) {
     return Boolean.valueOf(b);
   }
 
   public static Byte createWrapper(byte b) {
-    return new Byte(b);
+    return BoxedValueCache.valueOf(b);
   }
 
   public static Character createWrapper(char c) {
-    return new Character(c);
+    return BoxedValueCache.valueOf(c);
   }
 
   public static Double createWrapper(double c) {
-    return new Double(c);
+    return BoxedValueCache.valueOf(c);
   }
 
   public static Float createWrapper(float c) {
-    return new Float(c);
+    return BoxedValueCache.valueOf(c);
   }
 
   public static Integer createWrapper(int c) {
-    return new Integer(c);
+    return BoxedValueCache.valueOf(c);
   }
 
   public static Short createWrapper(short c) {
-    return new Short(c);
+    return BoxedValueCache.valueOf(c);
   }
 
-  /*
-   * This method converts the json string into a JavaScriptObject inside of JSNI
-   * method by simply evaluating the string in JavaScript.
+  /**
+   * Converts the json string into a JavaScriptObject using the parser selected
+   * by the <code>jsio.jsonParser</code> deferred-binding property.
    */
-  public static native JavaScriptObject evaluate(String jsonString) /*-{
-   var x = eval('(' + jsonString + ')');
-   if (typeof x == 'number' || typeof x == 'string' || typeof x == 'array' || typeof x == 'boolean') {
-   x = (Object(x));
-   }
-   return x;
-   }-*/;
+  public static JavaScriptObject evaluate(String jsonString)
+      throws JSONWrapperException {
+    return PARSER.parse(jsonString);
+  }
 
   public static native boolean hasField(JavaScriptObject jso, String fieldName) /*-{
     return fieldName in jso;
@@ -70,6 +70,14 @@ public final class JSStringListWrapper extends AbstractJSListWrapper<String>
       return null;
   }
 
+  /**
+   * Points the wrapper at a different array.
+   */
+  public JSStringListWrapper rebind(JavaScriptObject obj) {
+    arr = obj;
+    return this;
+  }
+
   @Override
   public String remove(int index) {
     if (index < 0 || index > size()) {
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.GWT;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Receives the call timings reported by
+ * {@link com.google.gwt.jsio.client.JSIOLatency}. The implementation is
+ * selected by the <code>jsio.latency</code> deferred-binding property. This
+ * default implementation discards all timings.
+ */
+public class LatencyImpl {
+
+  static final LatencyImpl INSTANCE = (LatencyImpl) GWT.create(LatencyImpl.class);
+
+  /**
+   * Returns the latency implementation.
+   */
+  public static LatencyImpl get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns a timestamp, in milliseconds, to be passed to {@link #stop}.
+   */
+  public static double start() {
+    return INSTANCE.now();
+  }
+
+  /**
+   * Records the time elapsed since <code>start</code> against
+   * <code>key</code>.
+   */
+  public static void stop(String key, double start) {
+    LatencyImpl impl = INSTANCE;
+    impl.record(key, impl.now() - start);
+  }
+
+  public Set<String> getKeys() {
+    return new TreeSet<String>();
+  }
+
+  /**
+   * Returns an upper bound, in milliseconds, for the given percentile of the
+   * timings recorded against <code>key</code>, or <code>-1</code> if there are
+   * none.
+   */
+  public double getPercentile(String key, double percentile) {
+    return -1;
+  }
+
+  public boolean isEnabled() {
+    return false;
+  }
+
+  public void reset() {
+  }
+
+  protected double now() {
+    return 0;
+  }
+
+  protected void record(String key, double millis) {
+  }
+}
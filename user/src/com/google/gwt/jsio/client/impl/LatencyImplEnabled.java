@@ -0,0 +1,111 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Records call timings in fixed-bucket histograms. Selected by setting the
+ * <code>jsio.latency</code> deferred-binding property to <code>on</code>.
+ */
+public class LatencyImplEnabled extends LatencyImpl {
+
+  /**
+   * The upper bounds, in milliseconds, of the histogram buckets. A final
+   * bucket holds all larger values.
+   */
+  private static final double[] BOUNDS = {
+      0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500,
+      1000};
+
+  private final Map<String, int[]> histograms = new HashMap<String, int[]>();
+
+  /**
+   * The largest value recorded against each key.
+   */
+  private final Map<String, Double> maxima = new HashMap<String, Double>();
+
+  @Override
+  public Set<String> getKeys() {
+    return new TreeSet<String>(histograms.keySet());
+  }
+
+  @Override
+  public double getPercentile(String key, double percentile) {
+    int[] histogram = histograms.get(key);
+    if (histogram == null) {
+      return -1;
+    }
+
+    int total = 0;
+    for (int count : histogram) {
+      total += count;
+    }
+
+    double target = total * percentile / 100;
+    int seen = 0;
+    for (int i = 0; i < BOUNDS.length; i++) {
+      seen += histogram[i];
+      // Skip empty buckets, which would otherwise satisfy a target of zero
+      if (histogram[i] > 0 && seen >= target) {
+        return Math.min(BOUNDS[i], maxima.get(key).doubleValue());
+      }
+    }
+    return maxima.get(key).doubleValue();
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void reset() {
+    histograms.clear();
+    maxima.clear();
+  }
+
+  /**
+   * Uses a high-resolution timer if the browser provides one.
+   */
+  @Override
+  protected native double now() /*-{
+    var performance = $wnd.performance;
+    return performance && performance.now ? performance.now()
+        : new Date().getTime();
+  }-*/;
+
+  @Override
+  protected void record(String key, double millis) {
+    int[] histogram = histograms.get(key);
+    if (histogram == null) {
+      histogram = new int[BOUNDS.length + 1];
+      histograms.put(key, histogram);
+      maxima.put(key, millis);
+    } else if (millis > maxima.get(key).doubleValue()) {
+      maxima.put(key, millis);
+    }
+
+    int bucket = 0;
+    while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+      bucket++;
+    }
+    histogram[bucket]++;
+  }
+}
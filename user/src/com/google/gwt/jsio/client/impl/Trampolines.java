@@ -0,0 +1,70 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Creates the per-instance function objects for JSFunctions. Each function
+ * simply forwards to a linkage function that is shared by every instance of a
+ * JSFunction type. The forwarding functions are specialized by arity so that
+ * all JSFunctions with the same number of parameters share the same code.
+ */
+public final class Trampolines {
+  /**
+   * Returns a function that invokes <code>linkage</code> with
+   * <code>instance</code> followed by the arguments passed to the function.
+   * 
+   * @param linkage a function whose first parameter receives the instance
+   * @param instance the Java object to pass to <code>linkage</code>
+   */
+  public static native JavaScriptObject bind(JavaScriptObject linkage,
+      Object instance) /*-{
+    switch (linkage.length) {
+      case 1:
+        return function() {
+          return linkage(instance);
+        };
+      case 2:
+        return function(a) {
+          return linkage(instance, a);
+        };
+      case 3:
+        return function(a, b) {
+          return linkage(instance, a, b);
+        };
+      case 4:
+        return function(a, b, c) {
+          return linkage(instance, a, b, c);
+        };
+      case 5:
+        return function(a, b, c, d) {
+          return linkage(instance, a, b, c, d);
+        };
+      default:
+        return function() {
+          var args = [instance];
+          for (var i = 0; i < arguments.length; i++) {
+            args.push(arguments[i]);
+          }
+          return linkage.apply(null, args);
+        };
+    }
+  }-*/;
+
+  private Trampolines() {
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import com.google.gwt.core.client.GWT;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tracks the generated wrappers that have not been disposed, for reporting by
+ * {@link com.google.gwt.jsio.client.JSIOLiveWrappers}. The implementation is
+ * selected by the <code>jsio.liveWrappers</code> deferred-binding property.
+ * This default implementation does not track anything.
+ */
+public class WrapperRegistryImpl {
+
+  static final WrapperRegistryImpl INSTANCE = (WrapperRegistryImpl) GWT.create(WrapperRegistryImpl.class);
+
+  /**
+   * Returns the registry implementation.
+   */
+  public static WrapperRegistryImpl get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Called by generated wrappers when they are created.
+   */
+  public static void register(Object wrapper, String typeName) {
+    INSTANCE.add(wrapper, typeName);
+  }
+
+  /**
+   * Called by generated wrappers when they are disposed.
+   */
+  public static void unregister(Object wrapper) {
+    INSTANCE.remove(wrapper);
+  }
+
+  /**
+   * Returns the number of live wrappers for each type and allocation tag.
+   */
+  public Map<String, Integer> getCounts() {
+    return new TreeMap<String, Integer>();
+  }
+
+  public boolean isEnabled() {
+    return false;
+  }
+
+  public void setTag(String tag) {
+  }
+
+  protected void add(Object wrapper, String typeName) {
+  }
+
+  protected void remove(Object wrapper) {
+  }
+}
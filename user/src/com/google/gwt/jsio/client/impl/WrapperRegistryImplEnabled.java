@@ -0,0 +1,68 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client.impl;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Retains every generated wrapper that has not been disposed, along with its
+ * type and the allocation tag that was current when it was created. Selected
+ * by setting the <code>jsio.liveWrappers</code> deferred-binding property to
+ * <code>on</code>.
+ * <p>
+ * The references are strong, so every undisposed wrapper is kept alive for as
+ * long as the module runs, and the counts are created minus disposed rather
+ * than the wrappers that are still reachable.
+ * </p>
+ */
+public class WrapperRegistryImplEnabled extends WrapperRegistryImpl {
+
+  private final Map<Object, String> live = new IdentityHashMap<Object, String>();
+
+  private String tag;
+
+  @Override
+  public Map<String, Integer> getCounts() {
+    Map<String, Integer> toReturn = new TreeMap<String, Integer>();
+    for (String key : live.values()) {
+      Integer count = toReturn.get(key);
+      toReturn.put(key, count == null ? 1 : count.intValue() + 1);
+    }
+    return toReturn;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void setTag(String tag) {
+    this.tag = tag;
+  }
+
+  @Override
+  protected void add(Object wrapper, String typeName) {
+    live.put(wrapper, tag == null ? typeName : typeName + " @" + tag);
+  }
+
+  @Override
+  protected void remove(Object wrapper) {
+    live.remove(wrapper);
+  }
+}
@@ -47,6 +47,10 @@
  * <li>{@link com.google.gwt.jsio.client.JSWrapper}</li>
  * <li>{@link com.google.gwt.jsio.client.JSList} having a compatible generic
  * type</li>
+ * <li>{@link com.google.gwt.jsio.client.JSIntList},
+ * {@link com.google.gwt.jsio.client.JSDoubleList}, and
+ * {@link com.google.gwt.jsio.client.JSBooleanList} for arrays of primitive
+ * values</li>
  * <li>{@link com.google.gwt.core.client.JavaScriptObject} and subtypes</li>
  * <li>{@link com.google.gwt.jsio.client.JSOpaque} as a method parameter only.</li>
  * </ul>
@@ -57,8 +61,25 @@
  * {@link com.google.gwt.jsio.client.JSWrapper} instance associated with a
  * {@link com.google.gwt.core.client.JavaScriptObject}. This allows the
  * JSWrapper to maintain an object identity equivalent to that of the underlying
- * JavaScriptObject. This is done by adding an additional property,
- * <code>__gwtObject</code>, to the JavaScriptObject.
+ * JavaScriptObject. By default, this is done by adding an additional property,
+ * <code>__gwtPeer</code>, to the JavaScriptObject. The
+ * {@link com.google.gwt.jsio.client.IdentityMode} annotation or the
+ * <code>jsio.identityMode</code> deferred-binding property can instead keep
+ * the mapping in a side table, leaving the JavaScriptObject unmodified.
+ * Calling {@link com.google.gwt.jsio.client.JSWrapper#dispose()} removes the
+ * association, so that a long-lived JavaScriptObject does not retain a wrapper
+ * that is no longer needed. Wrappers that have not been disposed can be listed
+ * with {@link com.google.gwt.jsio.client.JSIOLiveWrappers}.
+ * </p>
+ * 
+ * <p>
+ * The implementation of a wrapper type <code>com.example.Foo</code> is a
+ * generated class named <code>com.example.__FooImpl</code>. If a class with
+ * that name is already present on the module's source path, the generator will
+ * use it instead of generating a new implementation. Sources emitted by the
+ * compiler's <code>-gen</code> flag may be added to the source path to avoid
+ * regenerating unchanged wrappers; they must be regenerated whenever the
+ * wrapper interface or the JSIO library changes.
  * </p>
  * 
  * 
@@ -75,7 +96,7 @@
  * 
  *   public void hello() {
  *     HelloWrapper hello = GWT.create(HelloWrapper.class);
- *     hello.setJSONData(&quot;{hello:'Hello world'}&quot;);
+ *     hello.setJSONData(&quot;{\&quot;hello\&quot;:\&quot;Hello world\&quot;}&quot;);
  *     Window.alert(hello.getHello());
  *   }
  * }
@@ -103,7 +124,7 @@
  * }
  * 
  * MixedWrapper wrapper = (MixedWrapper) GWT.create(MixedWrapper.class);
- * wrapper.setJSONData(&quot;{a:2, b:5}&quot;);
+ * wrapper.setJSONData(&quot;{\&quot;a\&quot;:2, \&quot;b\&quot;:5}&quot;);
  * Window.alert(wrapper.multiply());
  * </pre>
  * 
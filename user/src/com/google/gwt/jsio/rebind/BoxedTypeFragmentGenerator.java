@@ -68,12 +68,10 @@ class BoxedTypeFragmentGenerator extends FragmentGenerator {
     TypeOracle typeOracle = context.typeOracle;
     JClassType returnType = context.returnType.isClassOrInterface();
 
-    // Don't use "x || null" expression because the value may be boolean false
-    sw.print("(");
+    // Don't use "x || null" expression because the value may be boolean false.
+    // The == comparison also matches undefined.
     sw.print(context.parameterName);
-    sw.print(" == null || ");
-    sw.print(context.parameterName);
-    sw.print(" == undefined) ? null : ");
+    sw.print(" == null ? null : ");
     sw.print("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::createWrapper");
 
     // Just plow through the Boxed types
@@ -111,6 +109,11 @@ class BoxedTypeFragmentGenerator extends FragmentGenerator {
     sw.print(")");
   }
 
+  @Override
+  boolean readsParameterMoreThanOnce() {
+    return true;
+  }
+
   @Override
   void toJS(FragmentGeneratorContext context) throws UnableToCompleteException {
     context.parentLogger.branch(TreeLogger.DEBUG,
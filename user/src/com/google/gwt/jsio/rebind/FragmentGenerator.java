@@ -36,7 +36,8 @@ abstract class FragmentGenerator {
   protected static boolean isAssignable(TypeOracle typeOracle, JClassType type,
       Class<?> clazz) {
 
-    return (type.isAssignableTo(typeOracle.findType(clazz.getName())));
+    return (type.isAssignableTo(FragmentGeneratorOracle.findType(typeOracle,
+        clazz)));
   }
 
   /**
@@ -65,6 +66,15 @@ abstract class FragmentGenerator {
   abstract void fromJS(FragmentGeneratorContext context)
       throws UnableToCompleteException;
 
+  /**
+   * Subclasses should return <code>true</code> if the value returned by
+   * {@link #defaultValue} is a mutable object that must be stored in the
+   * backing object for later modifications to be retained.
+   */
+  boolean hasMutableDefaultValue() {
+    return false;
+  }
+
   /**
    * Subclasses should return <code>true</code> iff the fromJS and toJS
    * functions don't apply a transformation to the input variable.
@@ -73,6 +83,16 @@ abstract class FragmentGenerator {
     return false;
   }
 
+  /**
+   * Subclasses should return <code>true</code> if fromJS evaluates
+   * <code>context.parameterName</code> more than once.
+   * 
+   * @see FragmentGeneratorContext#bindParameter
+   */
+  boolean readsParameterMoreThanOnce() {
+    return false;
+  }
+
   /**
    * Create a right-hand assignment value that represents the value of
    * <code>context.parametername</code>.
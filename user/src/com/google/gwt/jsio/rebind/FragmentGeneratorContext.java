@@ -23,17 +23,29 @@ import com.google.gwt.user.rebind.SourceWriter;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Defines context for the fragment generation code.
  */
 class FragmentGeneratorContext {
+  /**
+   * Matches a simple JavaScript identifier.
+   */
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$]*");
+
   /**
    * Implementations of FragmentGenerator can add wrapper JClassType objects to
    * this Set to indicate that they require a creator method for the given type.
    */
   Set<JClassType> creatorFixups;
 
+  /**
+   * Indicates that the runtime counters should be incremented by the generated
+   * code.
+   */
+  boolean counters;
+
   /**
    * The name of the field within the backing object to use.
    */
@@ -44,6 +56,28 @@ class FragmentGeneratorContext {
    */
   FragmentGeneratorOracle fragmentGeneratorOracle;
 
+  /**
+   * The identity mode to use for types without an IdentityMode annotation.
+   */
+  String identityMode;
+
+  /**
+   * Indicates that default values should be applied when a property is read,
+   * rather than when the JSO is attached.
+   */
+  boolean lazyDefaults;
+
+  /**
+   * Indicates that calls across the Java/JavaScript boundary should be timed.
+   */
+  boolean latency;
+
+  /**
+   * Indicates that generated wrappers should be registered with the live
+   * wrapper registry.
+   */
+  boolean liveWrappers;
+
   /**
    * Indicates that a 1:1 identity mapping should be retained between the
    * JSWrapper and the underlying JSO.
@@ -90,6 +124,17 @@ class FragmentGeneratorContext {
    */
   SourceWriter sw;
 
+  /**
+   * Keys of the function objects that are shared through the generated class's
+   * function cache. The cache is only written if this Set is non-empty.
+   */
+  Set<String> sharedFunctions;
+
+  /**
+   * Collects timings and metrics for the class that is being generated.
+   */
+  GeneratorStatistics statistics;
+
   /**
    * All Tasks for the class that is being generated.
    */
@@ -120,8 +165,40 @@ class FragmentGeneratorContext {
     objRef = copyFrom.objRef;
     qualifiedTypeName = copyFrom.qualifiedTypeName;
     creatorFixups = copyFrom.creatorFixups;
+    counters = copyFrom.counters;
     readOnly = copyFrom.readOnly;
     maintainIdentity = copyFrom.maintainIdentity;
+    identityMode = copyFrom.identityMode;
+    lazyDefaults = copyFrom.lazyDefaults;
+    latency = copyFrom.latency;
+    liveWrappers = copyFrom.liveWrappers;
     tasks = copyFrom.tasks;
+    sharedFunctions = copyFrom.sharedFunctions;
+    statistics = copyFrom.statistics;
+  }
+
+  /**
+   * Ensures that <code>fragmentGenerator</code> will evaluate
+   * <code>parameterName</code> only once. If the generator reads its input
+   * more than once and <code>parameterName</code> is not already a local
+   * identifier, a local variable is declared to hold the value and
+   * <code>parameterName</code> is updated to refer to it. This must only be
+   * called where a statement may be written.
+   * 
+   * @param fragmentGenerator the generator that will consume the parameter
+   * @param localName the name of the local variable to declare
+   */
+  void bindParameter(FragmentGenerator fragmentGenerator, String localName) {
+    if (!fragmentGenerator.readsParameterMoreThanOnce()
+        || IDENTIFIER.matcher(parameterName).matches()) {
+      return;
+    }
+
+    sw.print("var ");
+    sw.print(localName);
+    sw.print(" = ");
+    sw.print(parameterName);
+    sw.println(";");
+    parameterName = localName;
   }
 }
\ No newline at end of file
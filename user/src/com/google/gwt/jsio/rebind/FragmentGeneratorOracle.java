@@ -17,14 +17,19 @@ package com.google.gwt.jsio.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Returns FragmentGenerators.
+ * Returns FragmentGenerators. The FragmentGenerators themselves are stateless
+ * and the caches maintained by this class are synchronized, so a single
+ * instance may be shared by concurrently-running generators.
  */
 class FragmentGeneratorOracle {
   /**
@@ -34,6 +39,7 @@ class FragmentGeneratorOracle {
       LongFragmentGenerator.class, BoxedTypeFragmentGenerator.class,
       JavaScriptObjectFragmentGenerator.class,
       JSFunctionFragmentGenerator.class, JSListFragmentGenerator.class,
+      JSPrimitiveListFragmentGenerator.class,
       PrimitiveFragmentGenerator.class, StringFragmentGenerator.class,
       JSOpaqueFragmentGenerator.class, JSWrapperFragmentGenerator.class,
       PeeringFragmentGenerator.class,
@@ -44,10 +50,68 @@ class FragmentGeneratorOracle {
        */
       ArrayFragmentGenerator.class, JSFlyweightFragmentGenerator.class};
 
+  /**
+   * Cached JClassTypes for well-known classes, valid for handleOracle.
+   */
+  private static final Map<String, JClassType> handles = new HashMap<String, JClassType>();
+
+  /**
+   * The TypeOracle from which the cached handles were obtained.
+   */
+  private static TypeOracle handleOracle;
+
+  /**
+   * Find the JClassType for a class, caching the result for the lifetime of
+   * the TypeOracle.
+   * 
+   * @return the JClassType or <code>null</code> if the type does not exist
+   */
+  static synchronized JClassType findType(TypeOracle oracle, Class<?> clazz) {
+    if (oracle != handleOracle) {
+      handles.clear();
+      handleOracle = oracle;
+    }
+
+    String name = clazz.getName();
+    JClassType toReturn = handles.get(name);
+    if (toReturn == null) {
+      toReturn = oracle.findType(name);
+      handles.put(name, toReturn);
+    }
+    return toReturn;
+  }
+
+  /**
+   * Returns the number of cached type handles.
+   */
+  private static synchronized int getHandleCount() {
+    return handles.size();
+  }
+
   /**
    * The List will always be checked in-order.
    */
-  private List<FragmentGenerator> fragmentGenerators = new ArrayList<FragmentGenerator>();
+  private final List<FragmentGenerator> fragmentGenerators = new ArrayList<FragmentGenerator>();
+
+  /**
+   * The number of lookups satisfied by the resolution cache.
+   */
+  private int hits;
+
+  /**
+   * The number of lookups that required the FragmentGenerators to be checked.
+   */
+  private int misses;
+
+  /**
+   * Previously-resolved FragmentGenerators, valid for resolutionOracle.
+   */
+  private final Map<JType, FragmentGenerator> resolutions = new HashMap<JType, FragmentGenerator>();
+
+  /**
+   * The TypeOracle in which the cached resolutions were made.
+   */
+  private TypeOracle resolutionOracle;
 
   /**
    * Constructor.
@@ -74,11 +138,26 @@ class FragmentGeneratorOracle {
    *         specified type
    * @throws UnableToCompleteException if there is no registered generator
    */
-  public FragmentGenerator findFragmentGenerator(TreeLogger logger,
-      TypeOracle oracle, JType type) throws UnableToCompleteException {
+  public synchronized FragmentGenerator findFragmentGenerator(
+      TreeLogger logger, TypeOracle oracle, JType type)
+      throws UnableToCompleteException {
+
+    // Types are only meaningful within the TypeOracle that created them
+    if (oracle != resolutionOracle) {
+      resolutions.clear();
+      resolutionOracle = oracle;
+    }
+
+    FragmentGenerator toReturn = resolutions.get(type);
+    if (toReturn != null) {
+      hits++;
+      return toReturn;
+    }
 
+    misses++;
     for (FragmentGenerator g : fragmentGenerators) {
       if (g.accepts(oracle, type)) {
+        resolutions.put(type, g);
         return g;
       }
     }
@@ -87,4 +166,14 @@ class FragmentGeneratorOracle {
         + " cannot be processed by JSIO.", null);
     throw new UnableToCompleteException();
   }
+
+  /**
+   * Logs the effectiveness of the resolution and type handle caches.
+   */
+  public synchronized void logStatistics(TreeLogger logger) {
+    int lookups = hits + misses;
+    logger.log(TreeLogger.DEBUG, "FragmentGenerator resolution: " + lookups
+        + " lookups, " + hits + " cached, " + resolutions.size()
+        + " types resolved, " + getHandleCount() + " type handles", null);
+  }
 }
@@ -0,0 +1,365 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.HasAnnotations;
+import com.google.gwt.core.ext.typeinfo.HasMetaData;
+import com.google.gwt.core.ext.typeinfo.JArrayType;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JField;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.JParameter;
+import com.google.gwt.core.ext.typeinfo.JParameterizedType;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.jsio.client.BeanProperties;
+import com.google.gwt.jsio.client.Binding;
+import com.google.gwt.jsio.client.Constructor;
+import com.google.gwt.jsio.client.Exported;
+import com.google.gwt.jsio.client.FieldName;
+import com.google.gwt.jsio.client.Global;
+import com.google.gwt.jsio.client.IdentityMode;
+import com.google.gwt.jsio.client.Imported;
+import com.google.gwt.jsio.client.LazyDefaults;
+import com.google.gwt.jsio.client.NamePolicy;
+import com.google.gwt.jsio.client.NoIdentity;
+import com.google.gwt.jsio.client.ReadOnly;
+import com.google.gwt.jsio.client.impl.MetaDataName;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An optional on-disk cache of generated implementations, enabled by setting
+ * the <code>JSWrapper.cacheDir</code> system property to a directory. Entries
+ * are keyed by a hash of the declarations that the generated source depends
+ * upon: the source type, its supertypes, and every type reachable from them
+ * through method signatures and {@link Binding} annotations. This allows unchanged wrappers to be reused across
+ * hosted-mode refreshes and separate compilations.
+ */
+class GeneratedSourceCache {
+  /**
+   * Annotations that affect the generated source.
+   */
+  @SuppressWarnings("unchecked")
+  private static final Class<? extends Annotation>[] ANNOTATIONS = new Class[] {
+      BeanProperties.class, Binding.class, Constructor.class, Exported.class,
+      FieldName.class, Global.class, IdentityMode.class, Imported.class,
+      LazyDefaults.class, NamePolicy.class, NoIdentity.class, ReadOnly.class};
+
+  private static final String ENCODING = "UTF-8";
+
+  private static final GeneratedSourceCache INSTANCE;
+
+  /**
+   * Changing this value invalidates all existing cache entries. It must be
+   * incremented by every change to the code that the generators emit, or to
+   * the inputs of the key, since entries written by an older generator would
+   * otherwise still be served.
+   */
+  private static final int VERSION = 4;
+
+  static {
+    String dir = System.getProperty("JSWrapper.cacheDir");
+    INSTANCE = dir == null ? null : new GeneratedSourceCache(new File(dir));
+  }
+
+  /**
+   * Returns the cache, or <code>null</code> if caching is not enabled.
+   */
+  static GeneratedSourceCache getInstance() {
+    return INSTANCE;
+  }
+
+  private static void collectTypes(JType type, Set<JClassType> types) {
+    JArrayType asArray = type.isArray();
+    if (asArray != null) {
+      collectTypes(asArray.getComponentType(), types);
+      return;
+    }
+
+    JClassType asClass = type.isClassOrInterface();
+    if (asClass == null) {
+      return;
+    }
+
+    types.add(asClass.getErasedType());
+
+    JParameterizedType asParam = asClass.isParameterized();
+    if (asParam != null) {
+      for (JClassType arg : asParam.getTypeArgs()) {
+        collectTypes(arg, types);
+      }
+    }
+  }
+
+  private static void collectHierarchy(JClassType type, Set<JClassType> types) {
+    if (type == null || !types.add(type.getErasedType())) {
+      return;
+    }
+
+    collectHierarchy(type.getSuperclass(), types);
+    for (JClassType implemented : type.getImplementedInterfaces()) {
+      collectHierarchy(implemented, types);
+    }
+  }
+
+  private static List<JClassType> sorted(Set<JClassType> types) {
+    List<JClassType> toReturn = new ArrayList<JClassType>(types);
+    Collections.sort(toReturn, new Comparator<JClassType>() {
+      public int compare(JClassType a, JClassType b) {
+        return a.getQualifiedSourceName().compareTo(b.getQualifiedSourceName());
+      }
+    });
+    return toReturn;
+  }
+
+  private final File dir;
+
+  private GeneratedSourceCache(File dir) {
+    this.dir = dir;
+  }
+
+  /**
+   * Computes the cache key for a generated type.
+   * 
+   * @param generator identifies the generator and any configuration that
+   *          affects its output
+   * @param sourceType the type being implemented
+   */
+  String computeKey(String generator, JClassType sourceType) {
+    StringBuilder declarations = new StringBuilder();
+    declarations.append(VERSION).append('\n');
+    declarations.append(generator).append('\n');
+
+    Set<JClassType> seen = new HashSet<JClassType>();
+    seen.add(sourceType.getErasedType());
+    Set<JClassType> referenced = new LinkedHashSet<JClassType>();
+    appendDeclaration(declarations, sourceType, referenced);
+
+    /*
+     * Follow references transitively, one sorted round at a time so that the
+     * key is stable. The fragment generators consult the types used by
+     * JSFunction methods and by supertypes, so a change to any of them can
+     * change the generated code.
+     */
+    while (true) {
+      List<JClassType> round = new ArrayList<JClassType>();
+      for (JClassType type : sorted(referenced)) {
+        if (seen.add(type)) {
+          round.add(type);
+        }
+      }
+      if (round.isEmpty()) {
+        break;
+      }
+
+      referenced = new LinkedHashSet<JClassType>();
+      for (JClassType type : round) {
+        appendDeclaration(declarations, type, referenced);
+      }
+    }
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      byte[] hash = digest.digest(declarations.toString().getBytes(ENCODING));
+
+      StringBuilder toReturn = new StringBuilder();
+      for (byte b : hash) {
+        toReturn.append(Character.forDigit((b >> 4) & 0xf, 16));
+        toReturn.append(Character.forDigit(b & 0xf, 16));
+      }
+      return toReturn.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Returns the cached source for a key, or <code>null</code> if there is no
+   * usable entry.
+   */
+  String read(TreeLogger logger, String key) {
+    File file = new File(dir, key + ".java");
+    if (!file.isFile()) {
+      logger.log(TreeLogger.DEBUG, "No cached implementation " + key, null);
+      return null;
+    }
+
+    try {
+      Reader in = new InputStreamReader(new FileInputStream(file), ENCODING);
+      try {
+        StringBuilder toReturn = new StringBuilder((int) file.length());
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          toReturn.append(buffer, 0, read);
+        }
+        logger.log(TreeLogger.DEBUG, "Reusing cached implementation " + key,
+            null);
+        return toReturn.toString();
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      logger.log(TreeLogger.WARN, "Unable to read cached implementation "
+          + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Stores generated source in the cache. Failures are logged and otherwise
+   * ignored.
+   */
+  void write(TreeLogger logger, String key, String source) {
+    File file = new File(dir, key + ".java");
+
+    try {
+      dir.mkdirs();
+
+      // Write to a temporary file so that readers never see a partial entry
+      File temp = File.createTempFile(key, ".tmp", dir);
+      Writer out = new OutputStreamWriter(new FileOutputStream(temp), ENCODING);
+      try {
+        out.write(source);
+      } finally {
+        out.close();
+      }
+
+      if (!temp.renameTo(file)) {
+        temp.delete();
+      }
+    } catch (IOException e) {
+      logger.log(TreeLogger.WARN, "Unable to cache implementation in " + file,
+          e);
+    }
+  }
+
+  /**
+   * Appends the declarations of a type and its supertypes. Types used in
+   * their method signatures or named by their bindings are added to
+   * <code>referenced</code>.
+   */
+  private void appendDeclaration(StringBuilder b, JClassType type,
+      Set<JClassType> referenced) {
+    Set<JClassType> hierarchy = new LinkedHashSet<JClassType>();
+    collectHierarchy(type, hierarchy);
+
+    for (JClassType t : hierarchy) {
+      b.append("type ").append(t.getQualifiedSourceName());
+      b.append(t.isInterface() != null ? " interface" : " class");
+      b.append(t.isAbstract() ? " abstract" : "").append('\n');
+
+      // The JRE types have no JSIO-specific declarations
+      if (t.getQualifiedSourceName().startsWith("java.")) {
+        continue;
+      }
+
+      appendAnnotations(b, t, t);
+
+      for (JField f : t.getFields()) {
+        b.append("field ").append(f.getType().getQualifiedSourceName());
+        b.append(' ').append(f.getName()).append('\n');
+      }
+
+      for (JMethod m : t.getMethods()) {
+        b.append("method ").append(m.getReadableDeclaration()).append('\n');
+        appendAnnotations(b, m, m);
+
+        collectTypes(m.getReturnType(), referenced);
+        for (JParameter p : m.getParameters()) {
+          collectTypes(p.getType(), referenced);
+        }
+        appendBindingType(b, m, referenced);
+      }
+    }
+  }
+
+  /**
+   * Adds the type whose exports are bound by a flyweight binding method to
+   * <code>referenced</code>, resolving it the same way as
+   * JSFlyweightWrapperGenerator.
+   */
+  @SuppressWarnings("deprecation")
+  private void appendBindingType(StringBuilder b, JMethod m,
+      Set<JClassType> referenced) {
+    String typeName = null;
+    Binding binding = m.getAnnotation(Binding.class);
+    if (binding != null) {
+      typeName = binding.value();
+    } else {
+      String[][] meta = m.getMetaData(Binding.class.getAnnotation(
+          MetaDataName.class).value());
+      if (meta.length > 0 && meta[0].length > 0) {
+        typeName = meta[0][0];
+      }
+    }
+
+    if (typeName == null || typeName.length() == 0) {
+      return;
+    }
+
+    JClassType bindingType = m.getEnclosingType().getOracle().findType(
+        typeName);
+    if (bindingType == null) {
+      // Becomes part of the key so that adding the type invalidates it
+      b.append("binding ").append(typeName).append(" unresolved\n");
+    } else {
+      referenced.add(bindingType.getErasedType());
+    }
+  }
+
+  @SuppressWarnings("deprecation")
+  private void appendAnnotations(StringBuilder b, HasAnnotations annotated,
+      HasMetaData metaData) {
+    for (Class<? extends Annotation> annotation : ANNOTATIONS) {
+      Annotation a = annotated.getAnnotation(annotation);
+      if (a != null) {
+        b.append(a.toString()).append('\n');
+      }
+    }
+
+    for (String tag : metaData.getMetaDataTags()) {
+      b.append("meta ").append(tag);
+      for (String[] values : metaData.getMetaData(tag)) {
+        for (String value : values) {
+          b.append(' ').append(value);
+        }
+      }
+      b.append('\n');
+    }
+  }
+}
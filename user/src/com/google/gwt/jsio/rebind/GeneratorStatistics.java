@@ -0,0 +1,291 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the time spent generating a single type and the size of its output,
+ * broken down by the section of the class and the property that produced it.
+ * The statistics for every type generated by the JVM are retained so that the
+ * slowest types can be reported. If the <code>JSWrapper.statisticsFile</code>
+ * system property is set, a JSON report of all types is rewritten to that file
+ * each time a type is generated. If the <code>JSWrapper.sizeBudget</code>
+ * system property is set, generating a type whose source exceeds that many
+ * characters is an error.
+ */
+class GeneratorStatistics {
+  /**
+   * The phases of generation.
+   */
+  enum Phase {
+    LOOKUP, EXTRACT, VALIDATE, EMIT, COMMIT
+  }
+
+  private static final Map<String, GeneratorStatistics> ALL = new HashMap<String, GeneratorStatistics>();
+
+  private static final Comparator<GeneratorStatistics> SLOWEST_FIRST = new Comparator<GeneratorStatistics>() {
+    public int compare(GeneratorStatistics a, GeneratorStatistics b) {
+      long delta = b.getTotalNanos() - a.getTotalNanos();
+      return delta < 0 ? -1 : delta > 0 ? 1 : 0;
+    }
+  };
+
+  private static final int SIZE_BUDGET = Integer.getInteger(
+      "JSWrapper.sizeBudget", 0).intValue();
+
+  private static final String STATISTICS_FILE = System.getProperty("JSWrapper.statisticsFile");
+
+  /**
+   * The number of types listed in the log summary.
+   */
+  private static final int SUMMARY_SIZE = 5;
+
+  /**
+   * Retains the statistics for a generated type, logs a summary, and updates
+   * the report file if one is configured.
+   */
+  static void record(TreeLogger logger, GeneratorStatistics statistics) {
+    logger.log(TreeLogger.DEBUG, statistics.toString(), null);
+
+    // Only the numbers are retained, not the generated source
+    statistics.output = null;
+
+    List<GeneratorStatistics> sorted;
+    synchronized (ALL) {
+      ALL.put(statistics.typeName, statistics);
+      sorted = new ArrayList<GeneratorStatistics>(ALL.values());
+    }
+    Collections.sort(sorted, SLOWEST_FIRST);
+
+    if (logger.isLoggable(TreeLogger.DEBUG)) {
+      TreeLogger summary = logger.branch(TreeLogger.DEBUG,
+          "Slowest generated types", null);
+      for (GeneratorStatistics s : sorted.subList(0, Math.min(SUMMARY_SIZE,
+          sorted.size()))) {
+        summary.log(TreeLogger.DEBUG, s.toString(), null);
+      }
+    }
+
+    if (STATISTICS_FILE != null) {
+      writeReport(logger, sorted);
+    }
+  }
+
+  private static void writeReport(TreeLogger logger,
+      List<GeneratorStatistics> sorted) {
+    File file = new File(STATISTICS_FILE);
+    try {
+      PrintWriter out = new PrintWriter(new OutputStreamWriter(
+          new FileOutputStream(file), "UTF-8"));
+      try {
+        out.println("{\"types\": [");
+        for (int i = 0; i < sorted.size(); i++) {
+          out.print("  ");
+          out.print(sorted.get(i).toJson());
+          out.println(i < sorted.size() - 1 ? "," : "");
+        }
+        out.println("]}");
+      } finally {
+        out.close();
+      }
+    } catch (IOException e) {
+      logger.log(TreeLogger.WARN, "Unable to write generator statistics to "
+          + file, e);
+    }
+  }
+
+  /**
+   * Whether the source was reused from the GeneratedSourceCache.
+   */
+  boolean cached;
+
+  /**
+   * The number of creator fixups written.
+   */
+  int fixups;
+
+  /**
+   * The length, in characters, of the generated source.
+   */
+  int sourceLength;
+
+  /**
+   * The number of Tasks implemented.
+   */
+  int tasks;
+
+  private long lastMark = System.nanoTime();
+
+  private int lastSize;
+
+  private StringWriter output;
+
+  private final long[] phaseNanos = new long[Phase.values().length];
+
+  private String slowestTask;
+
+  private final Map<String, Integer> sectionSizes = new LinkedHashMap<String, Integer>();
+
+  private long slowestTaskNanos;
+
+  private final String typeName;
+
+  GeneratorStatistics(String typeName) {
+    this.typeName = typeName;
+  }
+
+  /**
+   * Fails if the generated source exceeds the size budget, logging the largest
+   * sections of the source.
+   */
+  void checkBudget(TreeLogger logger) throws UnableToCompleteException {
+    if (SIZE_BUDGET <= 0 || sourceLength <= SIZE_BUDGET) {
+      return;
+    }
+
+    TreeLogger branch = logger.branch(TreeLogger.ERROR, typeName
+        + " generated " + sourceLength
+        + " characters of source, exceeding the budget of " + SIZE_BUDGET,
+        null);
+    List<Map.Entry<String, Integer>> largest = new ArrayList<Map.Entry<String, Integer>>(
+        sectionSizes.entrySet());
+    Collections.sort(largest, new Comparator<Map.Entry<String, Integer>>() {
+      public int compare(Map.Entry<String, Integer> a,
+          Map.Entry<String, Integer> b) {
+        return b.getValue().compareTo(a.getValue());
+      }
+    });
+    for (Map.Entry<String, Integer> entry : largest.subList(0, Math.min(
+        SUMMARY_SIZE, largest.size()))) {
+      branch.log(TreeLogger.ERROR, entry.getKey() + ": " + entry.getValue()
+          + " characters", null);
+    }
+    record(logger, this);
+    throw new UnableToCompleteException();
+  }
+
+  /**
+   * Attributes the time since the previous phase ended to <code>phase</code>.
+   */
+  void endPhase(Phase phase) {
+    long now = System.nanoTime();
+    phaseNanos[phase.ordinal()] += now - lastMark;
+    lastMark = now;
+  }
+
+  /**
+   * Attributes the source written since the previous section ended to
+   * <code>section</code>.
+   */
+  void endSection(String section) {
+    if (output == null) {
+      return;
+    }
+
+    int now = output.getBuffer().length();
+    Integer previous = sectionSizes.get(section);
+    sectionSizes.put(section, now - lastSize
+        + (previous == null ? 0 : previous.intValue()));
+    lastSize = now;
+  }
+
+  long getTotalNanos() {
+    long toReturn = 0;
+    for (long nanos : phaseNanos) {
+      toReturn += nanos;
+    }
+    return toReturn;
+  }
+
+  /**
+   * Records the time taken to write a single Task.
+   */
+  void recordTask(String fieldName, long nanos) {
+    endSection(fieldName);
+    if (slowestTask == null || nanos > slowestTaskNanos) {
+      slowestTask = fieldName;
+      slowestTaskNanos = nanos;
+    }
+  }
+
+  /**
+   * Sets the buffer that contains the generated source so that its growth can
+   * be attributed to sections.
+   */
+  void setOutput(StringWriter output) {
+    this.output = output;
+    lastSize = output.getBuffer().length();
+  }
+
+  String toJson() {
+    StringBuilder b = new StringBuilder();
+    b.append("{\"type\": \"").append(typeName).append("\"");
+    b.append(", \"cached\": ").append(cached);
+    b.append(", \"tasks\": ").append(tasks);
+    b.append(", \"fixups\": ").append(fixups);
+    b.append(", \"sourceLength\": ").append(sourceLength);
+    b.append(", \"totalNanos\": ").append(getTotalNanos());
+    for (Phase phase : Phase.values()) {
+      b.append(", \"").append(phase.name().toLowerCase()).append("Nanos\": ");
+      b.append(phaseNanos[phase.ordinal()]);
+    }
+    if (slowestTask != null) {
+      b.append(", \"slowestTask\": \"").append(slowestTask).append("\"");
+      b.append(", \"slowestTaskNanos\": ").append(slowestTaskNanos);
+    }
+    b.append(", \"sectionSizes\": {");
+    boolean needsComma = false;
+    for (Map.Entry<String, Integer> entry : sectionSizes.entrySet()) {
+      b.append(needsComma ? ", " : "").append("\"").append(entry.getKey());
+      b.append("\": ").append(entry.getValue());
+      needsComma = true;
+    }
+    b.append("}");
+    return b.append("}").toString();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder b = new StringBuilder(typeName);
+    b.append(": ").append(getTotalNanos() / 1000000).append("ms");
+    for (Phase phase : Phase.values()) {
+      b.append(", ").append(phase.name().toLowerCase()).append(" ");
+      b.append(phaseNanos[phase.ordinal()] / 1000000).append("ms");
+    }
+    b.append(", ").append(tasks).append(" tasks, ").append(fixups).append(
+        " fixups, ").append(sourceLength).append(" chars");
+    if (cached) {
+      b.append(" (cached)");
+    }
+    return b.toString();
+  }
+}
@@ -75,8 +75,8 @@ public class JSFlyweightWrapperGenerator extends JSWrapperGenerator {
     JClassType paramType = param.getType().isClassOrInterface();
     JField f;
 
-    if (context.typeOracle.findType(JavaScriptObject.class.getName()).equals(
-        paramType)) {
+    if (FragmentGeneratorOracle.findType(context.typeOracle,
+        JavaScriptObject.class).equals(paramType)) {
       context.objRef = param.getName();
 
     } else if ((f = PeeringFragmentGenerator.findPeer(context.typeOracle,
@@ -95,6 +95,11 @@ public class JSFlyweightWrapperGenerator extends JSWrapperGenerator {
 
   protected void writeBinding(FragmentGeneratorContext context, JMethod binding)
       throws UnableToCompleteException {
+    if (binding.getReturnType().isPrimitive() == null) {
+      writeFactoryBinding(context, binding);
+      return;
+    }
+
     TreeLogger logger = context.parentLogger.branch(TreeLogger.DEBUG,
         "Writing binding function", null);
     context = new FragmentGeneratorContext(context);
@@ -192,9 +197,7 @@ public class JSFlyweightWrapperGenerator extends JSWrapperGenerator {
       // Verify that the incoming object doesn't already have a wrapper object.
       // If there is a backreference, throw an exception.
       sw.print("if (");
-      sw.print(context.parameterName);
-      sw.print(".");
-      sw.print(BACKREF);
+      sw.print(getPeerExpression(context, bindingType, context.parameterName));
       sw.println(") {");
       sw.indent();
       sw.println("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::throwMultipleWrapperException()();");
@@ -202,21 +205,20 @@ public class JSFlyweightWrapperGenerator extends JSWrapperGenerator {
       sw.println("}");
 
       // Assign the backreference from the JSO object to the delegate
-      sw.print(context.parameterName);
-      sw.print(".");
-      sw.print(BACKREF);
-      sw.print(" = ");
-      sw.print(context.objRef);
+      sw.print(getPeerAssignment(context, bindingType, context.parameterName,
+          context.objRef));
       sw.println(";");
     }
 
-    writeEmptyFieldInitializers(context);
+    if (!context.lazyDefaults) {
+      writeEmptyFieldInitializers(context);
+    }
 
     if (bindingType != null) {
       // Extract the exported methods
       context.tasks = TaskFactory.extractMethods(logger, typeOracle,
           bindingType, TaskFactory.EXPORTER_POLICY).values();
-      writeMethodBindings(context);
+      writeMethodBindings(context, bindingType);
     } else {
       logger.log(TreeLogger.DEBUG,
           "Not binding methods to any particular type.", null);
@@ -226,6 +228,102 @@ public class JSFlyweightWrapperGenerator extends JSWrapperGenerator {
     sw.println("}-*/;");
   }
 
+  /**
+   * Writes a binding that creates a new JSO for the peer object. The exported
+   * functions are installed once on the prototype of a generated constructor,
+   * so each new JSO only receives the back-reference and its field
+   * initializers. The prototype's functions find the peer object through the
+   * back-reference, so the flyweight must maintain identity.
+   */
+  protected void writeFactoryBinding(FragmentGeneratorContext context,
+      JMethod binding) throws UnableToCompleteException {
+    TreeLogger logger = context.parentLogger.branch(TreeLogger.DEBUG,
+        "Writing factory binding function", null);
+    if (!context.maintainIdentity) {
+      logger.log(TreeLogger.ERROR, "The factory binding "
+          + binding.getName() + " requires the back-reference to its peer"
+          + " object, which is not maintained by NoIdentity or ReadOnly"
+          + " flyweights", null);
+      throw new UnableToCompleteException();
+    }
+    context = new FragmentGeneratorContext(context);
+    context.parentLogger = logger;
+    context.returnType = JPrimitiveType.VOID;
+
+    SourceWriter sw = context.sw;
+    JClassType bindingType = binding.getParameters()[0].getType().isClassOrInterface();
+    String ctorField = "__constructor__" + binding.getName() + "__"
+        + bindingType.getQualifiedSourceName().replaceAll("\\.", "_");
+    String ctorRef = "@" + context.qualifiedTypeName + "::" + ctorField;
+
+    // The shared constructor is created on first use
+    sw.print("private static JavaScriptObject ");
+    sw.print(ctorField);
+    sw.println(";");
+
+    sw.print("private static native JavaScriptObject ");
+    sw.print(ctorField);
+    sw.println("() /*-{");
+    sw.indent();
+    sw.print("var ctor = ");
+    sw.print(ctorRef);
+    sw.println(";");
+    sw.println("if (!ctor) {");
+    sw.indent();
+    sw.print("ctor = ");
+    sw.print(ctorRef);
+    sw.println(" = function() {};");
+
+    FragmentGeneratorContext protoContext = new FragmentGeneratorContext(
+        context);
+    protoContext.parameterName = "ctor.prototype";
+    protoContext.tasks = TaskFactory.extractMethods(logger,
+        context.typeOracle, bindingType, TaskFactory.EXPORTER_POLICY).values();
+    writeMethodBindings(protoContext, bindingType);
+
+    sw.outdent();
+    sw.println("}");
+    sw.println("return ctor;");
+    sw.outdent();
+    sw.println("}-*/;");
+
+    // Create and bind a new instance
+    context.parameterName = "jso";
+    context.objRef = "obj";
+
+    sw.print("public native ");
+    sw.print(binding.getReturnType().getQualifiedSourceName());
+    sw.print(" ");
+    sw.print(binding.getName());
+    sw.print("(");
+    sw.print(bindingType.getQualifiedSourceName());
+    sw.print(" ");
+    sw.print(context.objRef);
+    sw.println(") /*-{");
+    sw.indent();
+
+    sw.print("var ctor = ");
+    sw.print(ctorRef);
+    sw.println("()();");
+    sw.print("var ");
+    sw.print(context.parameterName);
+    sw.println(" = new ctor();");
+
+    sw.print(getPeerAssignment(context, bindingType, context.parameterName,
+        context.objRef));
+    sw.println(";");
+
+    if (!context.lazyDefaults) {
+      writeEmptyFieldInitializers(context);
+    }
+
+    sw.print("return ");
+    sw.print(context.parameterName);
+    sw.println(";");
+    sw.outdent();
+    sw.println("}-*/;");
+  }
+
   /**
    * Writes common boilerplate code for all implementations.
    */
@@ -381,6 +479,17 @@ public class JSFlyweightWrapperGenerator extends JSWrapperGenerator {
     super.writeImported(context, imported);
   }
 
+  @Override
+  protected void writePresence(FragmentGeneratorContext context,
+      JMethod presence) throws UnableToCompleteException {
+
+    context = new FragmentGeneratorContext(context);
+    setObjRef(context, presence);
+    context.parameterName = context.objRef + "." + context.fieldName;
+
+    super.writePresence(context, presence);
+  }
+
   @Override
   protected void writeSetter(FragmentGeneratorContext context, JMethod setter)
       throws UnableToCompleteException {
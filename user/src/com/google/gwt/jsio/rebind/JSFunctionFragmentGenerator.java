@@ -33,23 +33,56 @@ import com.google.gwt.user.rebind.SourceWriter;
  * be created to perform the necessary type conversions.
  */
 class JSFunctionFragmentGenerator extends FragmentGenerator {
+  /**
+   * The name of the static field in generated classes that holds shared
+   * function objects.
+   */
+  static final String FUNCTIONS = "__functions";
+
+  /**
+   * Write out the JavaScript wrapper around a Java method. A single function
+   * object is created for each <code>key</code> in the generated class and is
+   * reused thereafter, so the function must not depend on any local state.
+   */
+  static void writeFunctionForMethod(FragmentGeneratorContext context,
+      String key, JMethod m) throws UnableToCompleteException {
+    writeFunctionForMethod(context, key, m, false);
+  }
+
   /**
    * Write out the JavaScript wrapper around a Java method.
+   * 
+   * @param receiverParameter if <code>true</code>, the function will accept
+   *          the object on which to invoke the method as its first parameter
    */
-  static void writeFunctionForMethod(FragmentGeneratorContext context, JMethod m)
+  private static void writeFunctionForMethod(FragmentGeneratorContext context,
+      String key, JMethod m, boolean receiverParameter)
       throws UnableToCompleteException {
     context.parentLogger.branch(TreeLogger.DEBUG, "Writing function() for "
         + m.getName(), null);
 
     if (isIdentityFunction(context, m)) {
       writeIdentityInvocation(context, m);
-    } else {
-      writeLinkageInvocation(context, m);
+      return;
     }
+
+    SourceWriter sw = context.sw;
+    String cacheRef = "@" + context.qualifiedTypeName + "::" + FUNCTIONS
+        + "['" + key + "']";
+    context.sharedFunctions.add(key);
+
+    sw.print("(");
+    sw.print(cacheRef);
+    sw.print(" || (");
+    sw.print(cacheRef);
+    sw.print(" = ");
+    writeLinkageInvocation(context, m, receiverParameter);
+    sw.print("))");
   }
 
   /**
-   * Determines if the exported method can be used as-is.
+   * Determines if the exported method can be used as-is. This is never the
+   * case when calls are being timed.
    */
   private static boolean isIdentityFunction(FragmentGeneratorContext context,
       JMethod m) throws UnableToCompleteException {
@@ -57,7 +90,7 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
         "Determining identity status of " + m.getName(), null);
     FragmentGeneratorOracle fgo = context.fragmentGeneratorOracle;
 
-    boolean identityOnly = m.isStatic();
+    boolean identityOnly = m.isStatic() && !context.latency;
     JParameter[] parameters = m.getParameters();
 
     identityOnly &= context.fragmentGeneratorOracle.findFragmentGenerator(
@@ -98,7 +131,7 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
    * Writes a linkage function object that will invoke the exported function.
    */
   private static void writeLinkageInvocation(FragmentGeneratorContext context,
-      JMethod m) throws UnableToCompleteException {
+      JMethod m, boolean receiverParameter) throws UnableToCompleteException {
     TreeLogger logger = context.parentLogger.branch(TreeLogger.DEBUG,
         "Writing function() for " + m.getName(), null);
 
@@ -109,6 +142,9 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
         logger, context.typeOracle, m.getReturnType());
 
     sw.print("function(");
+    if (receiverParameter) {
+      sw.print(parameters.length > 0 ? "instance, " : "instance");
+    }
     for (int i = 0; i < parameters.length; i++) {
       sw.print("arg");
       sw.print(String.valueOf(i));
@@ -118,8 +154,16 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
     }
     sw.println(") {");
     sw.indent();
+    JSWrapperGenerator.writeCounter(context, "JSFunction:"
+        + m.getEnclosingType().getQualifiedSourceName() + "." + m.getName(),
+        true);
 
-    if (returnFragmentGenerator.isIdentity()) {
+    JSWrapperGenerator.writeLatencyStart(context);
+
+    // The return value must be held while the call is timed
+    boolean returnDirectly = returnFragmentGenerator.isIdentity()
+        && !context.latency;
+    if (returnDirectly) {
       sw.print("return ");
     } else {
       sw.print("var javaReturn = ");
@@ -127,7 +171,7 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
 
     // Don't need to reference the instance on a static method
     if (!m.isStatic()) {
-      sw.print(context.parameterName);
+      sw.print(receiverParameter ? "instance" : context.parameterName);
       sw.print(".");
     }
 
@@ -172,6 +216,8 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
     sw.outdent();
     sw.outdent();
     sw.println(");");
+    JSWrapperGenerator.writeLatencyStop(context, "export:"
+        + m.getEnclosingType().getQualifiedSourceName() + "." + m.getName());
 
     if (!returnFragmentGenerator.isIdentity()) {
       FragmentGeneratorContext returnContext = new FragmentGeneratorContext(
@@ -181,6 +227,8 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
       sw.print("return ");
       returnFragmentGenerator.toJS(returnContext);
       sw.println(";");
+    } else if (!returnDirectly) {
+      sw.println("return javaReturn;");
     }
 
     sw.outdent();
@@ -222,7 +270,8 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
     TypeOracle typeOracle = context.typeOracle;
     JClassType functionClass = context.returnType.isClassOrInterface();
 
-    if (functionClass.equals(typeOracle.findType(JSFunction.class.getName()))) {
+    if (functionClass.equals(FragmentGeneratorOracle.findType(typeOracle,
+        JSFunction.class))) {
       logger.log(TreeLogger.ERROR, "You must use a subinterface of JSFunction"
           + " so that the generator can extract a method signature.", null);
       throw new UnableToCompleteException();
@@ -231,13 +280,26 @@ class JSFunctionFragmentGenerator extends FragmentGenerator {
     // This is to support the JSFunction having the same lifetime as the
     // JSFunction object without having to use GWT.create on every JSFunction
     // object as that would discourage anonymous classes.
+    JMethod m = findExportedMethod(logger, functionClass);
 
     sw.print("(");
     sw.print(context.parameterName);
     sw.print(".@com.google.gwt.jsio.client.JSFunction::exportedFunction || (");
     sw.print(context.parameterName);
     sw.print(".@com.google.gwt.jsio.client.JSFunction::exportedFunction = ");
-    writeFunctionForMethod(context, findExportedMethod(logger, functionClass));
+
+    if (isIdentityFunction(context, m)) {
+      writeIdentityInvocation(context, m);
+    } else {
+      // The instance-specific function only forwards to a linkage function
+      // shared by all instances of the JSFunction type
+      sw.print("@com.google.gwt.jsio.client.impl.Trampolines::bind(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/Object;)(");
+      writeFunctionForMethod(context, "linkage:"
+          + functionClass.getQualifiedSourceName(), m, true);
+      sw.print(", ");
+      sw.print(context.parameterName);
+      sw.print(")");
+    }
     sw.print("))");
   }
 
@@ -86,8 +86,13 @@ class JSListFragmentGenerator extends JSWrapperFragmentGenerator {
     return "[]";
   }
 
+  @Override
+  boolean hasMutableDefaultValue() {
+    return true;
+  }
+
   boolean isStringType(FragmentGeneratorContext context, JType typeToTest) {
-    return context.typeOracle.findType(String.class.getName()).equals(
+    return FragmentGeneratorOracle.findType(context.typeOracle, String.class).equals(
         typeToTest);
   }
 
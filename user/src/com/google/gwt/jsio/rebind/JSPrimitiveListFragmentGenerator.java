@@ -0,0 +1,130 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.jsio.client.JSBooleanList;
+import com.google.gwt.jsio.client.JSDoubleList;
+import com.google.gwt.jsio.client.JSIntList;
+import com.google.gwt.jsio.client.impl.AbstractJSPrimitiveListWrapper;
+import com.google.gwt.jsio.client.impl.JSBooleanListWrapper;
+import com.google.gwt.jsio.client.impl.JSDoubleListWrapper;
+import com.google.gwt.jsio.client.impl.JSIntListWrapper;
+import com.google.gwt.user.rebind.SourceWriter;
+
+/**
+ * Encapsulates accessors for the primitive-specialized list types, which
+ * read and write array elements without boxing them. No identity is maintained
+ * for these lists: each read creates a new wrapper around the backing array,
+ * and the array is never given a back-reference.
+ */
+class JSPrimitiveListFragmentGenerator extends FragmentGenerator {
+
+  @Override
+  boolean accepts(TypeOracle oracle, JType type) {
+    JClassType asClass = type.isClassOrInterface();
+
+    if (asClass == null) {
+      return false;
+    }
+
+    return isAssignable(oracle, asClass, JSIntList.class)
+        || isAssignable(oracle, asClass, JSDoubleList.class)
+        || isAssignable(oracle, asClass, JSBooleanList.class);
+  }
+
+  @Override
+  String defaultValue(TypeOracle typeOracle, JType type) {
+    return "[]";
+  }
+
+  @Override
+  void fromJS(FragmentGeneratorContext context)
+      throws UnableToCompleteException {
+    context.parentLogger.branch(TreeLogger.DEBUG,
+        "Building primitive list value getter statement", null);
+    SourceWriter sw = context.sw;
+
+    // arg == null ? null : <Wrapper>.create(arg)
+    sw.print(context.parameterName);
+    sw.print(" == null ? null : @");
+    sw.print(findWrapperClass(context).getName());
+    sw.print("::create(Lcom/google/gwt/core/client/JavaScriptObject;)(");
+    sw.print(context.parameterName);
+    sw.print(")");
+  }
+
+  @Override
+  boolean hasMutableDefaultValue() {
+    return true;
+  }
+
+  @Override
+  boolean readsParameterMoreThanOnce() {
+    return true;
+  }
+
+  @Override
+  void toJS(FragmentGeneratorContext context) throws UnableToCompleteException {
+    context.parentLogger.branch(TreeLogger.DEBUG,
+        "Building primitive list value setter statement", null);
+    SourceWriter sw = context.sw;
+
+    sw.print(context.parameterName);
+    sw.print(" == null ? null : ");
+    sw.print(context.parameterName);
+    sw.print(".@");
+    sw.print(AbstractJSPrimitiveListWrapper.class.getName());
+    sw.print("::getJavaScriptObject()()");
+  }
+
+  @Override
+  void writeExtractorJSNIReference(FragmentGeneratorContext context)
+      throws UnableToCompleteException {
+    SourceWriter sw = context.sw;
+
+    sw.print("@");
+    sw.print(findWrapperClass(context).getName());
+    sw.print("::EXTRACTOR");
+  }
+
+  /**
+   * Determine the implementation class to use for the list type.
+   */
+  private Class<?> findWrapperClass(FragmentGeneratorContext context)
+      throws UnableToCompleteException {
+    TypeOracle typeOracle = context.typeOracle;
+    JClassType asClass = context.returnType.isClassOrInterface();
+
+    if (isAssignable(typeOracle, asClass, JSIntList.class)) {
+      return JSIntListWrapper.class;
+
+    } else if (isAssignable(typeOracle, asClass, JSDoubleList.class)) {
+      return JSDoubleListWrapper.class;
+
+    } else if (isAssignable(typeOracle, asClass, JSBooleanList.class)) {
+      return JSBooleanListWrapper.class;
+    }
+
+    context.parentLogger.branch(TreeLogger.ERROR, "Unknown list type "
+        + asClass.getQualifiedSourceName(), null);
+    throw new UnableToCompleteException();
+  }
+}
@@ -37,8 +37,7 @@ class JSWrapperFragmentGenerator extends FragmentGenerator {
     sw.print("::");
     sw.print("__create__");
     sw.print(returnType.getQualifiedSourceName().replaceAll("\\.", "_"));
-    sw.print("()()");
-    sw.print(".@com.google.gwt.jsio.client.JSWrapper::setJavaScriptObject(Lcom/google/gwt/core/client/JavaScriptObject;)(");
+    sw.print("(Lcom/google/gwt/core/client/JavaScriptObject;)(");
     sw.print(context.parameterName);
     sw.print(")");
 
@@ -69,19 +68,30 @@ class JSWrapperFragmentGenerator extends FragmentGenerator {
         "Building string value getter statement", null);
     SourceWriter sw = context.sw;
 
-    // arg == null ? null : (arg.__gwtPeer || <new object>.setJSO(arg));
+    // arg == null ? null : (<peer of arg> || <new object>.setJSO(arg));
 
     sw.print(context.parameterName);
     sw.print(" == null ? null : ");
     sw.print("(");
-    sw.print(context.parameterName);
-    sw.print(".");
-    sw.print(JSWrapperGenerator.BACKREF);
+    String peer = JSWrapperGenerator.getPeerExpression(context,
+        context.returnType, context.parameterName);
+    if (context.counters) {
+      // Count the peers that are found without evaluating the lookup twice
+      peer = "@com.google.gwt.jsio.client.impl.CountersImpl::countPeer(Ljava/lang/Object;Ljava/lang/String;)("
+          + peer + ", \"peer:" + context.returnType.getQualifiedSourceName()
+          + "\")";
+    }
+    sw.print(peer);
     sw.print(" || ");
     writeJSNIObjectCreator(context);
     sw.print(")");
   }
 
+  @Override
+  final boolean readsParameterMoreThanOnce() {
+    return true;
+  }
+
   @Override
   final void toJS(FragmentGeneratorContext context)
       throws UnableToCompleteException {
@@ -103,9 +113,9 @@ class JSWrapperFragmentGenerator extends FragmentGenerator {
     sw.print("@");
     sw.print(context.qualifiedTypeName);
     sw.print("::");
-    sw.print("__create__");
+    sw.print("__extractor__");
     sw.print(elementType.getQualifiedSourceName().replaceAll("\\.", "_"));
-    sw.print("()().@com.google.gwt.jsio.client.JSWrapper::getExtractor()()");
+    sw.print("()()");
 
     context.creatorFixups.add(elementType);
   }
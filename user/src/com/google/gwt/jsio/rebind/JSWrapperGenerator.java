@@ -17,6 +17,7 @@ package com.google.gwt.jsio.rebind;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.ext.BadPropertyValueException;
 import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
@@ -32,7 +33,9 @@ import com.google.gwt.core.ext.typeinfo.JType;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
 import com.google.gwt.jsio.client.Constructor;
 import com.google.gwt.jsio.client.Global;
+import com.google.gwt.jsio.client.IdentityMode;
 import com.google.gwt.jsio.client.JSWrapper;
+import com.google.gwt.jsio.client.LazyDefaults;
 import com.google.gwt.jsio.client.NoIdentity;
 import com.google.gwt.jsio.client.ReadOnly;
 import com.google.gwt.jsio.client.impl.MetaDataName;
@@ -40,11 +43,14 @@ import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
 import com.google.gwt.user.rebind.SourceWriter;
 
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -59,6 +65,11 @@ public class JSWrapperGenerator extends Generator {
    */
   public static final String BACKREF = "__gwtPeer";
 
+  /**
+   * The deferred-binding property that enables the runtime counters.
+   */
+  protected static final String COUNTERS_PROPERTY = "jsio.counters";
+
   /**
    * The name of the static field that contains the class's Extractor instance.
    */
@@ -69,16 +80,86 @@ public class JSWrapperGenerator extends Generator {
    */
   protected static final FragmentGeneratorOracle FRAGMENT_ORACLE = new FragmentGeneratorOracle();
 
+  /**
+   * The deferred-binding property that selects the default
+   * {@link IdentityMode}.
+   */
+  protected static final String IDENTITY_MODE_PROPERTY = "jsio.identityMode";
+
+  /**
+   * The deferred-binding property that enables call timing.
+   */
+  protected static final String LATENCY_PROPERTY = "jsio.latency";
+
+  /**
+   * The deferred-binding property that enables tracking of live wrappers.
+   */
+  protected static final String LIVE_WRAPPERS_PROPERTY = "jsio.liveWrappers";
+
   /**
    * The name of the backing object field.
    */
   protected static final String OBJ = "jsoPeer";
 
+  /**
+   * Disables the fallback to deprecated javadoc metadata in hasTag.
+   */
+  private static final boolean ANNOTATIONS_ONLY = Boolean.getBoolean("JSWrapper.annotationsOnly");
+
   /**
    * Allows the metadata warning to be turned off to prevent log spam.
    */
   private static final boolean SUPPRESS_WARNINGS = Boolean.getBoolean("JSWrapper.suppressMetaWarnings");
 
+  /**
+   * Caches the results of hasTag, including negative results, for the types in
+   * tagCacheOracle.
+   */
+  private static final Map<HasAnnotations, Map<Class<?>, Annotation>> tagCache = new IdentityHashMap<HasAnnotations, Map<Class<?>, Annotation>>();
+
+  /**
+   * The TypeOracle whose types are referenced by tagCache.
+   */
+  private static TypeOracle tagCacheOracle;
+
+  /**
+   * Returns a JSNI statement that records <code>peer</code> as the Java peer
+   * of <code>jso</code>.
+   */
+  static String getPeerAssignment(FragmentGeneratorContext context,
+      JType peerType, String jso, String peer) throws UnableToCompleteException {
+    if (useIdentityTable(context, peerType)) {
+      return "@com.google.gwt.jsio.client.impl.IdentityTable::put(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/Object;)("
+          + jso + ", " + peer + ")";
+    }
+    return jso + "." + BACKREF + " = " + peer;
+  }
+
+  /**
+   * Returns a JSNI expression that evaluates to the Java peer of
+   * <code>jso</code>, or to a false value if there is no peer.
+   */
+  static String getPeerExpression(FragmentGeneratorContext context,
+      JType peerType, String jso) throws UnableToCompleteException {
+    if (useIdentityTable(context, peerType)) {
+      return "@com.google.gwt.jsio.client.impl.IdentityTable::get(Lcom/google/gwt/core/client/JavaScriptObject;)("
+          + jso + ")";
+    }
+    return jso + "." + BACKREF;
+  }
+
+  /**
+   * Returns a JSNI statement that removes the Java peer of <code>jso</code>.
+   */
+  static String getPeerRemoval(FragmentGeneratorContext context,
+      JType peerType, String jso) throws UnableToCompleteException {
+    if (useIdentityTable(context, peerType)) {
+      return "@com.google.gwt.jsio.client.impl.IdentityTable::remove(Lcom/google/gwt/core/client/JavaScriptObject;)("
+          + jso + ")";
+    }
+    return "delete " + jso + "." + BACKREF;
+  }
+
   /**
    * Extract an Annotation. If the requested Annotation does not exist on the
    * target node, the target's metadata will be examined for a tag based on the
@@ -87,6 +168,11 @@ public class JSWrapperGenerator extends Generator {
    * Annotation's value method, a {@link Proxy} will be synthesized. The proxy
    * mode is only to support existing functionality, all new features should be
    * added via new annotations.
+   * <p>
+   * Results, including negative results, are cached until a different
+   * TypeOracle is used. The metadata fallback is skipped if the
+   * <code>JSWrapper.annotationsOnly</code> system property is set.
+   * </p>
    * 
    * @param <A> the desired type of Annotation
    * @param <M> the type of object to search
@@ -100,10 +186,169 @@ public class JSWrapperGenerator extends Generator {
    *           but cannot be interpreted as the return type of the annotation's
    *           value method
    */
-  @SuppressWarnings("deprecation")
   static <A extends Annotation, M extends HasAnnotations & HasMetaData> A hasTag(
       TreeLogger logger, M target, final Class<A> annotation)
       throws UnableToCompleteException {
+    synchronized (tagCache) {
+      Map<Class<?>, Annotation> forTarget = tagCache.get(target);
+      if (forTarget != null && forTarget.containsKey(annotation)) {
+        return annotation.cast(forTarget.get(annotation));
+      }
+    }
+
+    // Search outside of the lock; concurrent misses compute the same result
+    A toReturn = findTag(logger, target, annotation);
+
+    synchronized (tagCache) {
+      Map<Class<?>, Annotation> forTarget = tagCache.get(target);
+      if (forTarget == null) {
+        forTarget = new HashMap<Class<?>, Annotation>();
+        tagCache.put(target, forTarget);
+      }
+      forTarget.put(annotation, toReturn);
+    }
+    return toReturn;
+  }
+
+  /**
+   * Clears the hasTag cache if it refers to a different TypeOracle.
+   */
+  static void resetTagCache(TypeOracle oracle) {
+    synchronized (tagCache) {
+      if (oracle != tagCacheOracle) {
+        tagCache.clear();
+        tagCacheOracle = oracle;
+      }
+    }
+  }
+
+  /**
+   * Determines if the identity mapping for instances of <code>peerType</code>
+   * is kept in an IdentityTable, based on the type's {@link IdentityMode}
+   * annotation or the module-wide default.
+   */
+  static boolean useIdentityTable(FragmentGeneratorContext context,
+      JType peerType) throws UnableToCompleteException {
+    JClassType asClass = peerType == null ? null
+        : peerType.isClassOrInterface();
+    IdentityMode identityMode = asClass == null ? null : hasTag(
+        context.parentLogger, asClass.getErasedType(), IdentityMode.class);
+    String mode = identityMode == null ? context.identityMode
+        : identityMode.value();
+
+    if (mode == null || IdentityMode.EXPANDO.equals(mode)) {
+      return false;
+    } else if (IdentityMode.TABLE.equals(mode)) {
+      return true;
+    }
+
+    context.parentLogger.log(TreeLogger.ERROR, "Unknown identity mode " + mode
+        + " for type " + peerType.getQualifiedSourceName(), null);
+    throw new UnableToCompleteException();
+  }
+  /**
+   * Writes a statement that increments a runtime counter if counters are
+   * enabled.
+   * 
+   * @param jsni <code>true</code> if the statement will be written in a JSNI
+   *          block
+   */
+  static void writeCounter(FragmentGeneratorContext context, String key,
+      boolean jsni) {
+    if (!context.counters) {
+      return;
+    }
+
+    SourceWriter sw = context.sw;
+    if (jsni) {
+      sw.print("@com.google.gwt.jsio.client.impl.CountersImpl::count(Ljava/lang/String;)");
+    } else {
+      sw.print("CountersImpl.count");
+    }
+    sw.print("(\"");
+    sw.print(key);
+    sw.println("\");");
+  }
+
+  /**
+   * Writes JSNI statements that record the start time of a call and open a
+   * <code>try</code> block around it if latency timing is enabled. Must be
+   * paired with {@link #writeLatencyStop}.
+   */
+  static void writeLatencyStart(FragmentGeneratorContext context) {
+    if (context.latency) {
+      SourceWriter sw = context.sw;
+      sw.println("var __start = @com.google.gwt.jsio.client.impl.LatencyImpl::start()();");
+      sw.println("try {");
+      sw.indent();
+    }
+  }
+
+  /**
+   * Closes the block opened by {@link #writeLatencyStart}, recording the
+   * duration of the call even if it throws.
+   */
+  static void writeLatencyStop(FragmentGeneratorContext context, String key) {
+    if (context.latency) {
+      SourceWriter sw = context.sw;
+      sw.outdent();
+      sw.println("} finally {");
+      sw.indent();
+      sw.print("@com.google.gwt.jsio.client.impl.LatencyImpl::stop(Ljava/lang/String;D)(\"");
+      sw.print(key);
+      sw.println("\", __start);");
+      sw.outdent();
+      sw.println("}");
+    }
+  }
+
+  /**
+   * Get the erased type of the parameterization of the JSWrapper. Returns
+   * <code>null</code> if JSWrapper is not in the class's inhertence
+   * hierarchy.
+   */
+  private static JClassType findJSWrapperParameterization(TypeOracle oracle,
+      JClassType extendsJSWrapper) {
+
+    // Break recursion
+    if (extendsJSWrapper == null) {
+      return null;
+    }
+
+    // Are we looking at JSWrapper<T>; if so, return it's parameterization
+    JClassType rawJSWrapper = FragmentGeneratorOracle.findType(oracle,
+        JSWrapper.class).getErasedType();
+    JParameterizedType asParam = extendsJSWrapper.isParameterized();
+    if (asParam != null && asParam.getErasedType().equals(rawJSWrapper)) {
+      return asParam.getTypeArgs()[0].getErasedType();
+    }
+
+    // Try the supertype
+    JClassType toReturn = findJSWrapperParameterization(oracle,
+        extendsJSWrapper.getSuperclass());
+    if (toReturn != null) {
+      return toReturn;
+    }
+
+    // Not in the supertype hierarchy, search the interfaces
+    for (JClassType implemented : extendsJSWrapper.getImplementedInterfaces()) {
+      toReturn = findJSWrapperParameterization(oracle, implemented);
+      if (toReturn != null) {
+        return toReturn;
+      }
+    }
+
+    // No type for you
+    return null;
+  }
+
+  /**
+   * Performs the uncached search for hasTag.
+   */
+  @SuppressWarnings("deprecation")
+  private static <A extends Annotation, M extends HasAnnotations & HasMetaData> A findTag(
+      TreeLogger logger, M target, final Class<A> annotation)
+      throws UnableToCompleteException {
     logger = logger.branch(TreeLogger.TRACE, "Looking for annotation/meta "
         + annotation.getName(), null);
 
@@ -114,6 +359,11 @@ public class JSWrapperGenerator extends Generator {
       return toReturn;
     }
 
+    if (ANNOTATIONS_ONLY) {
+      logger.log(TreeLogger.TRACE, "Not checking deprecated metadata", null);
+      return null;
+    }
+
     // Otherwise, fall back to HasMetaData
     MetaDataName metaDataName = annotation.getAnnotation(MetaDataName.class);
     if (metaDataName == null) {
@@ -214,42 +464,26 @@ public class JSWrapperGenerator extends Generator {
   }
 
   /**
-   * Get the erased type of the parameterization of the JSWrapper. Returns
-   * <code>null</code> if JSWrapper is not in the class's inhertence
-   * hierarchy.
+   * Pick a name for the generated class to not conflict. Enclosing class names
+   * must be preserved.
    */
-  private static JClassType findJSWrapperParameterization(TypeOracle oracle,
-      JClassType extendsJSWrapper) {
-
-    // Break recursion
-    if (extendsJSWrapper == null) {
-      return null;
-    }
-
-    // Are we looking at JSWrapper<T>; if so, return it's parameterization
-    JClassType rawJSWrapper = oracle.findType(JSWrapper.class.getName()).getErasedType();
-    JParameterizedType asParam = extendsJSWrapper.isParameterized();
-    if (asParam != null && asParam.getErasedType().equals(rawJSWrapper)) {
-      return asParam.getTypeArgs()[0].getErasedType();
-    }
-
-    // Try the supertype
-    JClassType toReturn = findJSWrapperParameterization(oracle,
-        extendsJSWrapper.getSuperclass());
-    if (toReturn != null) {
-      return toReturn;
-    }
+  private static String getGeneratedSimpleSourceName(JClassType sourceType) {
+    return "__" + sourceType.getName().replaceAll("\\.", "__") + "Impl";
+  }
 
-    // Not in the supertype hierarchy, search the interfaces
-    for (JClassType implemented : extendsJSWrapper.getImplementedInterfaces()) {
-      toReturn = findJSWrapperParameterization(oracle, implemented);
-      if (toReturn != null) {
-        return toReturn;
-      }
+  /**
+   * Determine the value of a deferred-binding property for the module being
+   * compiled.
+   */
+  private static String getPropertyValue(TreeLogger logger,
+      GeneratorContext context, String name, String defaultValue) {
+    try {
+      return context.getPropertyOracle().getPropertyValue(logger, name);
+    } catch (BadPropertyValueException e) {
+      logger.log(TreeLogger.DEBUG, "No value for " + name + ", using "
+          + defaultValue, null);
+      return defaultValue;
     }
-
-    // No type for you
-    return null;
   }
 
   /**
@@ -270,14 +504,26 @@ public class JSWrapperGenerator extends Generator {
       throw new UnableToCompleteException();
     }
 
-    // Pick a name for the generated class to not conflict. Enclosing class
-    // names must be preserved.
-    final String generatedSimpleSourceName = "__"
-        + sourceType.getName().replaceAll("\\.", "__") + "Impl";
+    final String packageName = sourceType.getPackage().getName();
+    final String generatedSimpleSourceName = getGeneratedSimpleSourceName(sourceType);
+
+    // All source gets written through this Writer
+    final PrintWriter out = context.tryCreate(logger, packageName,
+        generatedSimpleSourceName);
+
+    // If an implementation already exists, we don't need to do any work. This
+    // includes implementations generated ahead of time onto the source path.
+    if (out == null) {
+      logger.log(TreeLogger.DEBUG, "Using existing implementation of "
+          + typeName, null);
+      return packageName + "." + generatedSimpleSourceName;
+    }
+
+    resetTagCache(typeOracle);
 
     // Begin writing the generated source.
     final ClassSourceFileComposerFactory f = new ClassSourceFileComposerFactory(
-        sourceType.getPackage().getName(), generatedSimpleSourceName);
+        packageName, generatedSimpleSourceName);
 
     // Pull in source imports
     f.addImport(GWT.class.getName());
@@ -300,17 +546,37 @@ public class JSWrapperGenerator extends Generator {
       throw new UnableToCompleteException();
     }
 
-    // All source gets written through this Writer
-    final PrintWriter out = context.tryCreate(logger,
-        sourceType.getPackage().getName(), generatedSimpleSourceName);
+    String identityMode = getPropertyValue(logger, context,
+        IDENTITY_MODE_PROPERTY, IdentityMode.EXPANDO);
+    boolean counters = "on".equals(getPropertyValue(logger, context,
+        COUNTERS_PROPERTY, "off"));
+    boolean latency = "on".equals(getPropertyValue(logger, context,
+        LATENCY_PROPERTY, "off"));
+    boolean liveWrappers = "on".equals(getPropertyValue(logger, context,
+        LIVE_WRAPPERS_PROPERTY, "off"));
+    GeneratorStatistics statistics = new GeneratorStatistics(typeName);
+
+    // Reuse a previous implementation if none of its inputs have changed
+    GeneratedSourceCache cache = GeneratedSourceCache.getInstance();
+    String key = null;
+    String source = null;
+    if (cache != null) {
+      key = cache.computeKey(getClass().getName() + " " + identityMode + " "
+          + counters + " " + latency + " " + liveWrappers, sourceType);
+      source = cache.read(logger, key);
+    }
+    statistics.endPhase(GeneratorStatistics.Phase.LOOKUP);
+
+    if (source == null) {
+      StringWriter buffer = new StringWriter();
 
-    // If an implementation already exists, we don't need to do any work
-    if (out != null) {
       // We really use a SourceWriter since it's convenient
-      final SourceWriter sw = f.createSourceWriter(context, out);
+      final SourceWriter sw = f.createSourceWriter(new PrintWriter(buffer));
+      statistics.setOutput(buffer);
 
       final Map<String, Task> propertyAccessors = TaskFactory.extractMethods(
           logger, typeOracle, sourceType, getPolicy());
+      statistics.endPhase(GeneratorStatistics.Phase.EXTRACT);
 
       // Create the base context to be used during generation
       FragmentGeneratorContext fragmentContext = new FragmentGeneratorContext();
@@ -318,35 +584,71 @@ public class JSWrapperGenerator extends Generator {
       fragmentContext.fragmentGeneratorOracle = FRAGMENT_ORACLE;
       fragmentContext.typeOracle = typeOracle;
       fragmentContext.sw = sw;
-      fragmentContext.objRef = "this.@" + f.getCreatedClassName() + "::" + OBJ;
+      fragmentContext.objRef = "this.@" + f.getCreatedClassName() + "::"
+          + OBJ;
       fragmentContext.simpleTypeName = generatedSimpleSourceName;
       fragmentContext.qualifiedTypeName = f.getCreatedClassName();
       fragmentContext.returnType = sourceType;
-      fragmentContext.creatorFixups = new HashSet<JClassType>();
+      // Use ordered sets so that the output is stable across runs
+      fragmentContext.creatorFixups = new LinkedHashSet<JClassType>();
+      fragmentContext.sharedFunctions = new LinkedHashSet<String>();
       fragmentContext.readOnly = hasTag(logger, sourceType, ReadOnly.class) != null;
       fragmentContext.maintainIdentity = !(fragmentContext.readOnly || hasTag(
           logger, sourceType, NoIdentity.class) != null);
+      fragmentContext.lazyDefaults = hasTag(logger, sourceType,
+          LazyDefaults.class) != null;
       fragmentContext.tasks = propertyAccessors.values();
+      fragmentContext.identityMode = identityMode;
+      fragmentContext.counters = counters;
+      fragmentContext.latency = latency;
+      fragmentContext.liveWrappers = liveWrappers;
+      fragmentContext.statistics = statistics;
 
       // Perform sanity checks on the extracted information
       validateType(propertyAccessors, fragmentContext);
+      statistics.endPhase(GeneratorStatistics.Phase.VALIDATE);
 
       // Write all code that's not implementing methods
       writeBoilerplate(logger, fragmentContext);
+      statistics.endSection("boilerplate");
 
       // Write the JSO initializer if required
       if (!fragmentContext.readOnly) {
         writeEmptyFieldInitializerMethod(logger, propertyAccessors,
             fragmentContext);
+        statistics.endSection("__initializeEmptyFields");
       }
 
       writeMethods(fragmentContext, propertyAccessors);
-      writeFixups(logger, typeOracle, sw, fragmentContext.creatorFixups);
+      writeFixups(logger, typeOracle, sw, sourceType,
+          fragmentContext.creatorFixups);
+      statistics.endSection("fixups");
+      writeFunctionCache(fragmentContext);
+      statistics.endSection(JSFunctionFragmentGenerator.FUNCTIONS);
+      FRAGMENT_ORACLE.logStatistics(logger);
+      statistics.endPhase(GeneratorStatistics.Phase.EMIT);
+      statistics.tasks = propertyAccessors.size();
+      statistics.fixups = fragmentContext.creatorFixups.size();
 
-      // Write the generated code to disk
       sw.commit(logger);
+      source = buffer.toString();
+
+      if (cache != null) {
+        cache.write(logger, key, source);
+      }
+    } else {
+      statistics.cached = true;
     }
 
+    statistics.sourceLength = source.length();
+    statistics.checkBudget(logger);
+
+    // Write the generated code to disk
+    out.print(source);
+    context.commit(logger, out);
+    statistics.endPhase(GeneratorStatistics.Phase.COMMIT);
+    GeneratorStatistics.record(logger, statistics);
+
     // Return the name of the concrete class
     return f.getCreatedClassName();
   }
@@ -359,6 +661,55 @@ public class JSWrapperGenerator extends Generator {
     return 0;
   }
 
+  /**
+   * Builds an object literal that declares every field the wrapper will
+   * initialize, in a deterministic order. All new instances of the wrapper
+   * then share a single shape and __initializeEmptyFields never has to add a
+   * property to them.
+   */
+  protected String getObjectLiteral(TreeLogger logger,
+      FragmentGeneratorContext context) throws UnableToCompleteException {
+    Set<String> fieldNames = new LinkedHashSet<String>();
+    StringBuilder literal = new StringBuilder("{");
+
+    for (Task task : context.tasks) {
+      if (task.getter == null) {
+        continue;
+      }
+
+      String fieldName = task.getFieldName(logger);
+      if (!fieldNames.add(fieldName)) {
+        continue;
+      }
+
+      JType returnType = task.getter.getReturnType();
+      FragmentGenerator fragmentGenerator = FRAGMENT_ORACLE.findFragmentGenerator(
+          logger, context.typeOracle, returnType);
+
+      literal.append(fieldNames.size() == 1 ? "" : ", ");
+      literal.append("'").append(fieldName).append("': ");
+      literal.append(fragmentGenerator.defaultValue(context.typeOracle,
+          returnType));
+    }
+
+    // Reserve slots for the exported functions installed by
+    // writeMethodBindings
+    for (Task task : TaskFactory.extractMethods(logger, context.typeOracle,
+        context.returnType.isClassOrInterface(), TaskFactory.EXPORTER_POLICY).values()) {
+      if (task.exported == null) {
+        continue;
+      }
+
+      String fieldName = task.getFieldName(logger);
+      if (fieldNames.add(fieldName)) {
+        literal.append(fieldNames.size() == 1 ? "" : ", ");
+        literal.append("'").append(fieldName).append("': null");
+      }
+    }
+
+    return literal.append("}").toString();
+  }
+
   protected TaskFactory.Policy getPolicy() {
     return TaskFactory.WRAPPER_POLICY;
   }
@@ -410,10 +761,34 @@ public class JSWrapperGenerator extends Generator {
     sw.print(context.simpleTypeName);
     sw.println("() {");
     sw.indent();
+    writeCounter(context, "create:" + returnType.getQualifiedSourceName(),
+        false);
+    if (context.liveWrappers) {
+      sw.print("WrapperRegistryImpl.register(this, \"");
+      sw.print(returnType.getQualifiedSourceName());
+      sw.println("\");");
+    }
     sw.println("setJavaScriptObject(__nativeInit());");
     sw.outdent();
     sw.println("}");
 
+    // Used by the creator fixups to attach an existing JSO without first
+    // initializing a throwaway backing object.
+    sw.print("private ");
+    sw.print(context.simpleTypeName);
+    sw.println("(JavaScriptObject obj) {");
+    sw.indent();
+    writeCounter(context, "create:" + returnType.getQualifiedSourceName(),
+        false);
+    if (context.liveWrappers) {
+      sw.print("WrapperRegistryImpl.register(this, \"");
+      sw.print(returnType.getQualifiedSourceName());
+      sw.println("\");");
+    }
+    sw.println("setJavaScriptObject(obj);");
+    sw.outdent();
+    sw.println("}");
+
     // Determine the correct expression to use to initialize the object
     JClassType asClass = context.returnType.isClassOrInterface();
     Constructor constructorAnnotation = hasTag(logger, asClass,
@@ -436,7 +811,8 @@ public class JSWrapperGenerator extends Generator {
 
       if (!hasImports) {
         // Probably a JSON or pojo-style object
-        constructor = "{}";
+        constructor = context.readOnly ? "{}" : getObjectLiteral(logger,
+            context);
       } else {
         constructor = "null";
       }
@@ -466,6 +842,16 @@ public class JSWrapperGenerator extends Generator {
     sw.outdent();
     sw.println("}");
 
+    // Detach from the backing object so that neither retains the other
+    sw.println("public void dispose() {");
+    sw.indent();
+    if (context.liveWrappers) {
+      sw.println("WrapperRegistryImpl.unregister(this);");
+    }
+    sw.println("setJavaScriptObjectNative(null);");
+    sw.outdent();
+    sw.println("}");
+
     // Defer actual parsing to JSONWrapperUtil to take advantage of using
     // a common function implementation between generated classes.
     sw.println("public void setJSONData(String data)");
@@ -475,6 +861,20 @@ public class JSWrapperGenerator extends Generator {
     sw.outdent();
     sw.println("}");
 
+    // Re-point the wrapper without identity bookkeeping or defaults, so
+    // that pooled wrappers can be reused cheaply.
+    sw.print("public " + parameterization.getParameterizedQualifiedSourceName()
+        + " rebind(");
+    sw.println("JavaScriptObject obj) {");
+    sw.indent();
+    writeCounter(context, "rebind:" + returnType.getQualifiedSourceName(),
+        false);
+    sw.print(OBJ);
+    sw.println(" = obj;");
+    sw.println("return this;");
+    sw.outdent();
+    sw.println("}");
+
     // Satisfies JSWrapper and allows generated implementations to
     // efficiently initialize new objects.
     // Method declaration
@@ -507,15 +907,16 @@ public class JSWrapperGenerator extends Generator {
     sw.indent();
 
     if (context.maintainIdentity) {
-      // Delete the backing object's reference to the current wrapper
+      // Delete the backing object's reference to the current wrapper. A
+      // rebound wrapper does not own the object's identity, so it must leave
+      // another wrapper's reference in place.
       sw.print("if (");
       sw.print(context.objRef);
-      sw.println(") {");
+      sw.print(" && ");
+      sw.print(getPeerExpression(context, context.returnType, context.objRef));
+      sw.println(" === this) {");
       sw.indent();
-      sw.print("delete ");
-      sw.print(context.objRef);
-      sw.print(".");
-      sw.print(BACKREF);
+      sw.print(getPeerRemoval(context, context.returnType, context.objRef));
       sw.println(";");
       sw.outdent();
       sw.println("}");
@@ -533,8 +934,8 @@ public class JSWrapperGenerator extends Generator {
     if (context.maintainIdentity) {
       // Verify that the incoming object doesn't already have a wrapper object.
       // If there is a backreference, throw an exception.
-      sw.print("if (obj.");
-      sw.print(BACKREF);
+      sw.print("if (");
+      sw.print(getPeerExpression(context, context.returnType, "obj"));
       sw.println(") {");
       sw.indent();
       sw.println("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::throwMultipleWrapperException()();");
@@ -548,13 +949,19 @@ public class JSWrapperGenerator extends Generator {
 
     if (context.maintainIdentity) {
       // Assign the backreference from the wrapped object to the wrapper
-      sw.print(context.objRef);
-      sw.print(".");
-      sw.print(BACKREF);
-      sw.println(" = this;");
+      sw.print(getPeerAssignment(context, context.returnType, context.objRef,
+          "this"));
+      sw.println(";");
+    }
+
+    boolean initialize = !context.readOnly;
+    if (initialize && context.lazyDefaults) {
+      // Only exported functions need to be installed on the JSO
+      initialize = !TaskFactory.extractMethods(logger, typeOracle, asClass,
+          TaskFactory.EXPORTER_POLICY).isEmpty();
     }
 
-    if (!context.readOnly) {
+    if (initialize) {
       // Initialize any other fields if the JSWrapper is read-write
       sw.print("this.@");
       sw.print(context.qualifiedTypeName);
@@ -593,6 +1000,8 @@ public class JSWrapperGenerator extends Generator {
 
     sw.println("public native Object fromJS(JavaScriptObject obj) /*-{");
     sw.indent();
+    writeCounter(context, "fromJS:" + returnType.getQualifiedSourceName(),
+        true);
     sw.print("return ");
     fragmentGenerator.fromJS(subParams);
     sw.println(";");
@@ -603,6 +1012,8 @@ public class JSWrapperGenerator extends Generator {
     // implementation.
     sw.println("public native JavaScriptObject toJS(Object obj) /*-{");
     sw.indent();
+    writeCounter(context, "toJS:" + returnType.getQualifiedSourceName(),
+        true);
     sw.print("return ");
     fragmentGenerator.toJS(subParams);
     sw.println(";");
@@ -714,11 +1125,13 @@ public class JSWrapperGenerator extends Generator {
 
     FragmentGeneratorContext subContext = new FragmentGeneratorContext(context);
     subContext.parameterName = "jso";
-    writeEmptyFieldInitializers(subContext);
+    if (!context.lazyDefaults) {
+      writeEmptyFieldInitializers(subContext);
+    }
 
     subContext.tasks = TaskFactory.extractMethods(logger,
         subContext.typeOracle, returnType, TaskFactory.EXPORTER_POLICY).values();
-    writeMethodBindings(subContext);
+    writeMethodBindings(subContext, returnType);
 
     sw.outdent();
     sw.println("}-*/;");
@@ -768,8 +1181,14 @@ public class JSWrapperGenerator extends Generator {
     }
   }
 
+  /**
+   * Writes the creator methods used by generated JSNI code to obtain a wrapper
+   * or an Extractor for a JSWrapper type. Wrapping an existing JSO never
+   * invokes the default constructor, so no empty backing object is created
+   * and then discarded.
+   */
   protected void writeFixups(TreeLogger logger, TypeOracle typeOracle,
-      SourceWriter sw, Set<JClassType> creatorFixups)
+      SourceWriter sw, JClassType sourceType, Set<JClassType> creatorFixups)
       throws UnableToCompleteException {
     for (JClassType asClass : creatorFixups) {
       // If the type is parameterized, we want to replace it with the raw type
@@ -779,22 +1198,95 @@ public class JSWrapperGenerator extends Generator {
         asClass = pType.getRawType();
       }
 
+      String typeName = asClass.getQualifiedSourceName();
+      String mangledName = typeName.replaceAll("\\.", "_");
+
+      if (asClass.equals(sourceType.getErasedType())) {
+        // The type being generated can be constructed directly
+        sw.print("private static Extractor __extractor__");
+        sw.print(mangledName);
+        sw.println("() {");
+        sw.indent();
+        sw.print("return ");
+        sw.print(EXTRACTOR);
+        sw.println(";");
+        sw.outdent();
+        sw.println("}");
+
+        sw.print("private static ");
+        sw.print(typeName);
+        sw.print(" __create__");
+        sw.print(mangledName);
+        sw.println("(JavaScriptObject obj) {");
+        sw.indent();
+        sw.print("return new ");
+        sw.print(getGeneratedSimpleSourceName(sourceType));
+        sw.println("(obj);");
+        sw.outdent();
+        sw.println("}");
+        continue;
+      }
+
+      // Other types are reached through their Extractor, which is obtained
+      // from a single instance that is created on first use.
+      sw.print("private static Extractor __cachedExtractor__");
+      sw.print(mangledName);
+      sw.println(";");
+
+      sw.print("private static Extractor __extractor__");
+      sw.print(mangledName);
+      sw.println("() {");
+      sw.indent();
+      sw.print("if (__cachedExtractor__");
+      sw.print(mangledName);
+      sw.println(" == null) {");
+      sw.indent();
+      sw.print("__cachedExtractor__");
+      sw.print(mangledName);
+      sw.print(" = ((");
+      sw.print(typeName);
+      sw.print(")GWT.create(");
+      sw.print(typeName);
+      sw.println(".class)).getExtractor();");
+      sw.outdent();
+      sw.println("}");
+      sw.print("return __cachedExtractor__");
+      sw.print(mangledName);
+      sw.println(";");
+      sw.outdent();
+      sw.println("}");
+
       sw.print("private static ");
-      sw.print(asClass.getQualifiedSourceName());
+      sw.print(typeName);
       sw.print(" __create__");
-      sw.print(asClass.getQualifiedSourceName().replaceAll("\\.", "_"));
-      sw.println("() {");
+      sw.print(mangledName);
+      sw.println("(JavaScriptObject obj) {");
       sw.indent();
       sw.print("return (");
-      sw.print(asClass.getQualifiedSourceName());
-      sw.print(")GWT.create(");
-      sw.print(asClass.getQualifiedSourceName());
-      sw.println(".class);");
+      sw.print(typeName);
+      sw.print(")__extractor__");
+      sw.print(mangledName);
+      sw.println("().fromJS(obj);");
       sw.outdent();
       sw.println("}");
     }
   }
 
+  /**
+   * Writes the cache used to share function objects between instances of the
+   * generated class, if any shared functions were used.
+   */
+  protected void writeFunctionCache(FragmentGeneratorContext context) {
+    if (context.sharedFunctions.isEmpty()) {
+      return;
+    }
+
+    SourceWriter sw = context.sw;
+    sw.print("private static final JavaScriptObject ");
+    sw.print(JSFunctionFragmentGenerator.FUNCTIONS);
+    sw.println(" = JavaScriptObject.createObject();");
+  }
+
   protected void writeGetter(FragmentGeneratorContext context, JMethod getter)
       throws UnableToCompleteException {
 
@@ -812,22 +1304,35 @@ public class JSWrapperGenerator extends Generator {
     sw.print(returnType.getQualifiedSourceName());
     sw.print(" ");
     sw.print(getter.getName());
-    sw.print("(");
-
-    // This is only important when working with the flyweight subclass
-    JParameter[] params = getter.getParameters();
-    for (int i = 0; i < params.length; i++) {
-      sw.print(params[i].getType().getQualifiedSourceName());
-      sw.print(" ");
-      sw.print(params[i].getName());
+    writeParameterList(sw, getter);
+    sw.println(" /*-{");
+    sw.indent();
 
-      if (i < params.length - 1) {
-        sw.print(", ");
+    if (context.lazyDefaults) {
+      // Substitute the default value without modifying the backing object
+      sw.print("var jsValue = ");
+      sw.print(context.parameterName);
+      sw.println(";");
+      sw.println("if (jsValue === undefined) {");
+      sw.indent();
+      sw.print("jsValue = ");
+      if (fragmentGenerator.hasMutableDefaultValue() && !context.readOnly) {
+        // Keep the returned object attached to the backing object
+        sw.print(context.parameterName);
+        sw.print(" = ");
       }
+      sw.print(fragmentGenerator.defaultValue(typeOracle, returnType));
+      sw.println(";");
+      sw.outdent();
+      sw.println("}");
+
+      context = new FragmentGeneratorContext(context);
+      context.parameterName = "jsValue";
+    } else {
+      // Read the backing field only once
+      context = new FragmentGeneratorContext(context);
+      context.bindParameter(fragmentGenerator, "jsValue");
     }
-    sw.print(")");
-    sw.println(" /*-{");
-    sw.indent();
 
     sw.print("return ");
     fragmentGenerator.fromJS(context);
@@ -880,6 +1385,8 @@ public class JSWrapperGenerator extends Generator {
     // The return type of the function we're importing.
     final JType returnType = imported.getReturnType();
 
+    writeLatencyStart(context);
+
     // Don't bother recording a return value for void invocations.
     if (!JPrimitiveType.VOID.equals(returnType.isPrimitive())) {
       sw.print("var jsReturn = ");
@@ -913,6 +1420,9 @@ public class JSWrapperGenerator extends Generator {
       }
     }
     sw.println(");");
+    writeLatencyStop(context, "import:"
+        + imported.getEnclosingType().getQualifiedSourceName() + "."
+        + imported.getName());
 
     // Wrap the return type in the correct Java type. Void returns are ignored
     if (!JPrimitiveType.VOID.equals(returnType.isPrimitive())) {
@@ -934,8 +1444,8 @@ public class JSWrapperGenerator extends Generator {
     sw.println("}-*/;");
   }
 
-  protected void writeMethodBindings(FragmentGeneratorContext context)
-      throws UnableToCompleteException {
+  protected void writeMethodBindings(FragmentGeneratorContext context,
+      JClassType peerType) throws UnableToCompleteException {
     SourceWriter sw = context.sw;
     TreeLogger logger = context.parentLogger.branch(TreeLogger.DEBUG,
         "Writing method bindings initializers", null);
@@ -951,9 +1461,13 @@ public class JSWrapperGenerator extends Generator {
 
         FragmentGeneratorContext subContext = new FragmentGeneratorContext(
             context);
-        subContext.parameterName = "this." + BACKREF;
+        subContext.parameterName = "("
+            + getPeerExpression(context, peerType, "this") + ")";
 
+        // The function only refers to the bound object through "this", so a
+        // single instance can be shared by every bound object
         JSFunctionFragmentGenerator.writeFunctionForMethod(subContext,
+            "export:" + peerType.getQualifiedSourceName() + "." + fieldName,
             task.exported);
         sw.println(";");
       }
@@ -971,10 +1485,55 @@ public class JSWrapperGenerator extends Generator {
 
     for (Task task : propertyAccessors.values()) {
       context.fieldName = task.getFieldName(logger);
+      long start = System.nanoTime();
       writeSingleTask(context, task);
+      context.statistics.recordTask(context.fieldName, System.nanoTime()
+          - start);
     }
   }
 
+  /**
+   * Writes the parenthesized formal parameter list of a method.
+   */
+  protected void writeParameterList(SourceWriter sw, JMethod m) {
+    sw.print("(");
+
+    // This is only important when working with the flyweight subclass
+    JParameter[] params = m.getParameters();
+    for (int i = 0; i < params.length; i++) {
+      sw.print(params[i].getType().getQualifiedSourceName());
+      sw.print(" ");
+      sw.print(params[i].getName());
+
+      if (i < params.length - 1) {
+        sw.print(", ");
+      }
+    }
+    sw.print(")");
+  }
+
+  /**
+   * Writes a method that tests whether the backing object defines a value for
+   * a property.
+   */
+  protected void writePresence(FragmentGeneratorContext context,
+      JMethod presence) throws UnableToCompleteException {
+    context.parentLogger.branch(TreeLogger.DEBUG, "Writing presence check "
+        + presence.getName(), null);
+    SourceWriter sw = context.sw;
+
+    sw.print("public native boolean ");
+    sw.print(presence.getName());
+    writeParameterList(sw, presence);
+    sw.println(" /*-{");
+    sw.indent();
+    sw.print("return ");
+    sw.print(context.parameterName);
+    sw.println(" !== undefined;");
+    sw.outdent();
+    sw.println("}-*/;");
+  }
+
   protected void writeSetter(FragmentGeneratorContext context, JMethod setter)
       throws UnableToCompleteException {
 
@@ -1040,6 +1599,12 @@ public class JSWrapperGenerator extends Generator {
       writeGetter(context, task.getter);
     }
 
+    if (task.presence != null) {
+      context.returnType = task.presence.getReturnType();
+      context.parameterName = context.objRef + "." + context.fieldName;
+      writePresence(context, task.presence);
+    }
+
     if (task.imported != null) {
       context.returnType = task.imported.getReturnType();
       writeImported(context, task.imported);
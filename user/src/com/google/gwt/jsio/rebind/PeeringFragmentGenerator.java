@@ -56,7 +56,8 @@ class PeeringFragmentGenerator extends JSWrapperFragmentGenerator {
     }
 
     JMethod m = asClass.findMethod(JSFlyweightWrapperGenerator.CREATE_PEER,
-        new JType[] {oracle.findType(JavaScriptObject.class.getName())});
+        new JType[] {FragmentGeneratorOracle.findType(oracle,
+            JavaScriptObject.class)});
 
     if (m == null || !m.isStatic() || !type.equals(m.getReturnType())) {
       return null;
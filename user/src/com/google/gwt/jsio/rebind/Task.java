@@ -39,6 +39,7 @@ class Task {
   JMethod imported;
   JMethod exported;
   JMethod constructor;
+  JMethod presence;
 
   /**
    * Determines the field name to be used by the methods associated with the
@@ -57,6 +58,8 @@ class Task {
       return extractFieldName(logger, getter, false);
     } else if (setter != null) {
       return extractFieldName(logger, setter, false);
+    } else if (presence != null) {
+      return extractFieldName(logger, presence, false);
     } else if (binding != null) {
       return extractFieldName(logger, binding, true);
     } else if (exported != null) {
@@ -88,6 +91,8 @@ class Task {
       return imported.getName();
     } else if (constructor != null) {
       return constructor.getName();
+    } else if (presence != null) {
+      return presence.getName();
     }
     return null;
   }
@@ -101,7 +106,8 @@ class Task {
    */
   public boolean hasMethods() {
     return (getter != null) || (setter != null) || (imported != null)
-        || (exported != null) || (constructor != null) || (binding != null);
+        || (exported != null) || (constructor != null) || (binding != null)
+        || (presence != null);
   }
 
   /**
@@ -113,7 +119,8 @@ class Task {
       FragmentGeneratorContext context) {
     TreeLogger logger = context.parentLogger.branch(TreeLogger.DEBUG,
         "Validating task " + getJavaMethodName() + "().", null);
-    JClassType jsoType = context.typeOracle.findType(JavaScriptObject.class.getName());
+    JClassType jsoType = FragmentGeneratorOracle.findType(context.typeOracle,
+        JavaScriptObject.class);
 
     if ((imported != null) && ((getter != null) || (setter != null))) {
       logger.log(TreeLogger.ERROR, "Imported functions may not be combined "
@@ -130,7 +137,8 @@ class Task {
 
     if (constructor != null) {
       JClassType returnType = constructor.getReturnType().isClassOrInterface();
-      JClassType wrapperType = context.typeOracle.findType(JSWrapper.class.getName());
+      JClassType wrapperType = FragmentGeneratorOracle.findType(
+          context.typeOracle, JSWrapper.class);
 
       if (!(jsoType.isAssignableFrom(returnType) || constructor.getEnclosingType().isAssignableFrom(
           returnType))) {
@@ -165,6 +173,13 @@ class Task {
       return true;
     }
 
+    if ((presence != null)
+        && !JPrimitiveType.BOOLEAN.equals(presence.getReturnType().isPrimitive())) {
+      logger.log(TreeLogger.ERROR, "Presence check " + presence.getName()
+          + " must return a boolean", null);
+      return true;
+    }
+
     if (exported != null) {
       if (context.readOnly) {
         // If the interface is read-only, we couldn't add the function linkage
@@ -181,13 +196,23 @@ class Task {
     }
 
     if (binding != null) {
+      JParameter[] params = binding.getParameters();
+
       if (!JPrimitiveType.VOID.equals(binding.getReturnType().isPrimitive())) {
-        logger.log(TreeLogger.ERROR,
-            "Binding functions must have a void type.", null);
-        return true;
+        // A factory binding creates the JSO for a peer object
+        JClassType returnType = binding.getReturnType().isClassOrInterface();
+        if (returnType == null || !returnType.isAssignableFrom(jsoType)
+            || params.length != 1
+            || params[0].getType().isClassOrInterface() == null
+            || jsoType.isAssignableFrom(params[0].getType().isClassOrInterface())) {
+          logger.log(TreeLogger.ERROR, "Binding functions must have a void "
+              + "type, or return a JavaScriptObject and accept only the peer "
+              + "object.", null);
+          return true;
+        }
+        return false;
       }
 
-      JParameter[] params = binding.getParameters();
       if (params.length == 0
           || !jsoType.isAssignableFrom(params[0].getType().isClassOrInterface())) {
         logger.log(TreeLogger.ERROR, "The first parameter of a binding method "
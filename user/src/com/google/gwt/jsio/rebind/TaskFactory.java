@@ -34,9 +34,9 @@ import com.google.gwt.jsio.client.JSWrapper;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Stack;
+import java.util.TreeMap;
 
 /**
  * Examines types to produce Tasks.
@@ -96,7 +96,7 @@ public class TaskFactory {
   private static class ExporterPolicy implements Policy {
     public Collection<JMethod> getOperableMethods(TypeOracle oracle,
         JClassType clazz) {
-      Map<String, JMethod> toReturn = new HashMap<String, JMethod>();
+      Map<String, JMethod> toReturn = new TreeMap<String, JMethod>();
       Stack<JClassType> stack = new Stack<JClassType>();
 
       // Start by creating a stack that will look at all supertypes of the
@@ -196,7 +196,8 @@ public class TaskFactory {
     }
 
     protected boolean isJsoOrPeer(TypeOracle oracle, JType type) {
-      JClassType jsoType = oracle.findType(JavaScriptObject.class.getName()).isClass();
+      JClassType jsoType = FragmentGeneratorOracle.findType(oracle,
+          JavaScriptObject.class).isClass();
       return jsoType.isAssignableFrom(type.isClass())
           || (PeeringFragmentGenerator.findPeer(oracle, type) != null);
     }
@@ -279,7 +280,8 @@ public class TaskFactory {
   /**
    * Populate propertyAccessors from an array of JMethods.
    * 
-   * @return A Map of Strings to Tasks.
+   * @return A Map of Strings to Tasks, sorted by key so that generated code
+   *         is emitted in a deterministic order.
    */
   public static Map<String, Task> extractMethods(TreeLogger logger,
       TypeOracle typeOracle, JClassType clazz, Policy policy)
@@ -288,7 +290,7 @@ public class TaskFactory {
         "Extracting methods from " + clazz.getName(), null);
 
     // Value to return
-    final Map<String, Task> propertyAccessors = new HashMap<String, Task>();
+    final Map<String, Task> propertyAccessors = new TreeMap<String, Task>();
 
     // Iterate over all methods that the generated subclass could override
     for (JMethod m : policy.getOperableMethods(typeOracle, clazz)) {
@@ -353,6 +355,14 @@ public class TaskFactory {
         task.getter = m;
         logger.log(TreeLogger.DEBUG, "Determined this is a getter", null);
 
+        // Look for hasFoo()
+      } else if (methodName.startsWith("has")) {
+        String propertyName = getPropertyNameFromMethod(m);
+        Task task = getPropertyPair(propertyAccessors, propertyName);
+        task.presence = m;
+        logger.log(TreeLogger.DEBUG, "Determined this is a presence check",
+            null);
+
         // We could not make a decision on what should be done with the method.
       } else {
         logger.log(TreeLogger.ERROR, "Could not decide on implementation of "
@@ -382,6 +392,9 @@ public class TaskFactory {
     } else if (methodName.startsWith("is")) {
       return methodName.substring(2);
 
+    } else if (methodName.startsWith("has")) {
+      return methodName.substring(3);
+
     } else {
       return methodName;
     }
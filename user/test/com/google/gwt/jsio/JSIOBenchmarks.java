@@ -0,0 +1,41 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio;
+
+import com.google.gwt.jsio.client.JSListBenchmark;
+import com.google.gwt.jsio.client.JSONParserBenchmark;
+import com.google.gwt.jsio.client.WrapperBenchmark;
+import com.google.gwt.junit.tools.GWTTestSuite;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+
+/**
+ * Runtime benchmarks for the generated JSIO code. These are not run with the
+ * tests, but by the <code>benchmark</code> target. Each run writes a report
+ * file, named by its timestamp, so that results may be compared across runs.
+ */
+public class JSIOBenchmarks extends TestCase {
+  public static Test suite() {
+    GWTTestSuite suite = new GWTTestSuite("Benchmarks for the JSIO API");
+
+    suite.addTestSuite(JSListBenchmark.class);
+    suite.addTestSuite(JSONParserBenchmark.class);
+    suite.addTestSuite(WrapperBenchmark.class);
+
+    return suite;
+  }
+}
@@ -21,6 +21,7 @@ import com.google.gwt.jsio.client.JSIOBeanReturnUndefined;
 import com.google.gwt.jsio.client.JSONInvokerTest;
 import com.google.gwt.jsio.client.JSONWrapperTest;
 import com.google.gwt.jsio.client.JsoOverrideTest;
+import com.google.gwt.jsio.rebind.GeneratorTest;
 import com.google.gwt.jsio.rebind.NamePolicyTest;
 import com.google.gwt.junit.tools.GWTTestSuite;
 
@@ -40,6 +41,7 @@ public class JSIOTestSuite extends TestCase {
     suite.addTestSuite(JSONInvokerTest.class);
     suite.addTestSuite(JSONWrapperTest.class);
     suite.addTestSuite(JsoOverrideTest.class);
+    suite.addTestSuite(GeneratorTest.class);
     suite.addTestSuite(NamePolicyTest.class);
 
     return suite;
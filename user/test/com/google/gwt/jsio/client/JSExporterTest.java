@@ -68,6 +68,24 @@ public class JSExporterTest extends GWTTestCase {
 
     @Constructor("$wnd.Object")
     JavaScriptObject construct();
+
+    /**
+     * Creates a new JSO whose exported methods are inherited from a shared
+     * prototype.
+     */
+    @Binding
+    JavaScriptObject create(MathMethods m);
+  }
+
+  /**
+   * A factory binding cannot be used without identity, since the shared
+   * prototype finds the peer through the back-reference. This type is only
+   * used by GeneratorTest, which checks that it is rejected.
+   */
+  @NoIdentity
+  static interface NoIdentityMathFlyweightWrapper extends JSFlyweightWrapper {
+    @Binding
+    JavaScriptObject create(MathMethods m);
   }
 
   static class MathImpl implements MathMethods {
@@ -252,6 +270,34 @@ public class JSExporterTest extends GWTTestCase {
     }
   }
 
+  public void testFactoryBinding() {
+    MathFlyweightWrapper wrapper = (MathFlyweightWrapper) GWT.create(MathFlyweightWrapper.class);
+    MathImpl impl = new MathImpl();
+
+    JavaScriptObject jso1 = wrapper.create(impl);
+    JavaScriptObject jso2 = wrapper.create(new MathImpl());
+    assertSame(impl, JSFlyweightWrapper.Util.getJavaPeer(jso1));
+    assertFalse(hasOwnMethod(jso1, "add"));
+    assertTrue(sameMethod(jso1, jso2, "add"));
+    testAddJSO(jso1);
+    assertEquals(15, invokeSum(jso2));
+  }
+
+  public void testSharedExports() {
+    ExportedMethods export1 = (ExportedMethods) GWT.create(ExportedMethods.class);
+    ExportedMethods export2 = (ExportedMethods) GWT.create(ExportedMethods.class);
+    assertTrue(sameMethod(export1.getJavaScriptObject(),
+        export2.getJavaScriptObject(), "sum"));
+
+    MathFlyweightWrapper wrapper = (MathFlyweightWrapper) GWT.create(MathFlyweightWrapper.class);
+    JavaScriptObject jso1 = wrapper.construct();
+    JavaScriptObject jso2 = wrapper.construct();
+    wrapper.bind(jso1, new MathImpl());
+    wrapper.bind(jso2, new MathImpl());
+    assertTrue(sameMethod(jso1, jso2, "sum"));
+    assertEquals(15, invokeSum(jso2));
+  }
+
   public void testSub() {
     ExportedMethods export = (ExportedMethods) GWT.create(ExportedMethods.class);
     JavaScriptObject obj = export.getJavaScriptObject();
@@ -284,6 +330,10 @@ public class JSExporterTest extends GWTTestCase {
     return toReturn;
   }-*/;
 
+  private native boolean hasOwnMethod(JavaScriptObject obj, String name) /*-{
+    return obj.hasOwnProperty(name);
+  }-*/;
+
   private native int invokeAdd(JavaScriptObject jso, int a, int b) /*-{
     return jso.add(a, b);
   }-*/;
@@ -296,6 +346,11 @@ public class JSExporterTest extends GWTTestCase {
     return obj.sum([1, 2, 3, 4, 5]);
   }-*/;
 
+  private native boolean sameMethod(JavaScriptObject a, JavaScriptObject b,
+      String name) /*-{
+    return a[name] === b[name];
+  }-*/;
+
   private native boolean testMethod(JavaScriptObject obj, String methodName) /*-{
     return methodName in obj;
   }-*/;
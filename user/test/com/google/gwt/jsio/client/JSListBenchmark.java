@@ -0,0 +1,191 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.benchmarks.client.Benchmark;
+import com.google.gwt.benchmarks.client.RangeField;
+import com.google.gwt.benchmarks.client.Setup;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the cost of the generated JSList implementation.
+ */
+public class JSListBenchmark extends Benchmark {
+
+  /**
+   * Holds the list being measured.
+   */
+  @BeanProperties
+  static interface ListHolder extends JSWrapper<ListHolder> {
+    JSList<Integer> getValues();
+  }
+
+  /**
+   * An element of a list of records.
+   */
+  @BeanProperties
+  static interface Row extends JSWrapper<Row> {
+    int getValue();
+  }
+
+  /**
+   * Holds a list of records.
+   */
+  @BeanProperties
+  static interface RowHolder extends JSWrapper<RowHolder> {
+    JSList<Row> getRows();
+  }
+
+  protected final List<Integer> sizes = Arrays.asList(1000, 100 * 1000,
+      1000 * 1000);
+
+  private JSList<Integer> list;
+
+  private JSList<Row> rows;
+
+  /**
+   * Creates an object whose <code>values</code> property is an array of
+   * <code>size</code> numbers.
+   */
+  private static native JavaScriptObject makeData(int size) /*-{
+    var values = new Array(size);
+    for (var i = 0; i < size; i++) {
+      values[i] = i;
+    }
+    return {values: values};
+  }-*/;
+
+  /**
+   * Creates an object whose <code>rows</code> property is an array of
+   * <code>size</code> records.
+   */
+  private static native JavaScriptObject makeRows(int size) /*-{
+    var rows = new Array(size);
+    for (var i = 0; i < size; i++) {
+      rows[i] = {value: i};
+    }
+    return {rows: rows};
+  }-*/;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.jsio.JSIOTest";
+  }
+
+  // Required for JUnit
+  public void testAdd() {
+  }
+
+  @Setup("setupEmptyList")
+  public void testAdd(@RangeField("sizes") Integer size) {
+    for (int i = 0, j = size.intValue(); i < j; i++) {
+      list.add(i);
+    }
+  }
+
+  // Required for JUnit
+  public void testGet() {
+  }
+
+  @Setup("setupList")
+  public void testGet(@RangeField("sizes") Integer size) {
+    for (int i = 0, j = size.intValue(); i < j; i++) {
+      list.get(i);
+    }
+  }
+
+  // Required for JUnit
+  public void testIterate() {
+  }
+
+  @Setup("setupList")
+  public void testIterate(@RangeField("sizes") Integer size) {
+    for (Integer value : list) {
+      value.intValue();
+    }
+  }
+
+  // Required for JUnit
+  public void testIterateRows() {
+  }
+
+  /**
+   * Reads a property of each element of a list of records through the list's
+   * iterator, which creates a wrapper for each element.
+   */
+  @Setup("setupRows")
+  public void testIterateRows(@RangeField("sizes") Integer size) {
+    for (Row row : rows) {
+      row.getValue();
+    }
+  }
+
+  // Required for JUnit
+  public void testIterateRowsCursor() {
+  }
+
+  /**
+   * Reads a property of each element of a list of records with a single
+   * accessor.
+   */
+  @Setup("setupRows")
+  public void testIterateRowsCursor(@RangeField("sizes") Integer size) {
+    JSListCursor<Row> cursor = new JSListCursor<Row>(
+        (Row) GWT.create(Row.class));
+    for (cursor.reset(rows); cursor.next();) {
+      cursor.get().getValue();
+    }
+  }
+
+  // Required for JUnit
+  public void testRemove() {
+  }
+
+  /**
+   * Elements are removed from the end of the list to measure the cost of the
+   * call rather than that of shifting the underlying array.
+   */
+  @Setup("setupList")
+  public void testRemove(@RangeField("sizes") Integer size) {
+    for (int i = size.intValue() - 1; i >= 0; i--) {
+      list.remove(i);
+    }
+  }
+
+  protected void setupEmptyList(Integer size) {
+    setupList(0);
+  }
+
+  protected void setupList(Integer size) {
+    ListHolder holder = (ListHolder) GWT.create(ListHolder.class);
+    holder.setJavaScriptObject(makeData(size.intValue()));
+    list = holder.getValues();
+  }
+
+  /**
+   * The rows are recreated for each run so that the wrappers created by one
+   * run are not found as peers by the next.
+   */
+  protected void setupRows(Integer size) {
+    RowHolder holder = (RowHolder) GWT.create(RowHolder.class);
+    holder.setJavaScriptObject(makeRows(size.intValue()));
+    rows = holder.getRows();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.benchmarks.client.Benchmark;
+import com.google.gwt.benchmarks.client.RangeField;
+import com.google.gwt.benchmarks.client.Setup;
+import com.google.gwt.jsio.client.impl.JSONParserImpl;
+import com.google.gwt.jsio.client.impl.JSONParserImplEval;
+import com.google.gwt.jsio.client.impl.JSONParserImplSafe;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the JSON parsing strategies that may be selected with the
+ * <code>jsio.jsonParser</code> deferred-binding property. This is not part of
+ * the default test suite.
+ */
+public class JSONParserBenchmark extends Benchmark {
+
+  /**
+   * The approximate sizes, in characters, of the payloads to parse.
+   */
+  protected final List<Integer> sizes = Arrays.asList(100 * 1024,
+      1024 * 1024, 10 * 1024 * 1024);
+
+  private final JSONParserImpl evalParser = new JSONParserImplEval();
+
+  private final JSONParserImpl nativeParser = new JSONParserImpl();
+
+  private String payload;
+
+  private int payloadSize;
+
+  private final JSONParserImpl safeParser = new JSONParserImplSafe();
+
+  /**
+   * Create a JSON array of records whose length is at least
+   * <code>size</code> characters.
+   */
+  private static String makePayload(int size) {
+    StringBuffer toReturn = new StringBuffer(size + 128);
+    toReturn.append("[");
+    for (int i = 0; toReturn.length() < size; i++) {
+      if (i > 0) {
+        toReturn.append(",");
+      }
+      toReturn.append("{\"id\":").append(i);
+      toReturn.append(",\"name\":\"Item ").append(i).append("\"");
+      toReturn.append(",\"value\":").append(i * 0.5);
+      toReturn.append(",\"flag\":").append(i % 2 == 0);
+      toReturn.append(",\"tags\":[\"a\",\"b\",\"c\"]}");
+    }
+    toReturn.append("]");
+    return toReturn.toString();
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.jsio.JSIOTest";
+  }
+
+  // Required for JUnit
+  public void testEval() throws JSONWrapperException {
+  }
+
+  @Setup("setupPayload")
+  public void testEval(@RangeField("sizes") Integer size)
+      throws JSONWrapperException {
+    evalParser.parse(payload);
+  }
+
+  // Required for JUnit
+  public void testNative() throws JSONWrapperException {
+  }
+
+  @Setup("setupPayload")
+  public void testNative(@RangeField("sizes") Integer size)
+      throws JSONWrapperException {
+    nativeParser.parse(payload);
+  }
+
+  // Required for JUnit
+  public void testSafe() throws JSONWrapperException {
+  }
+
+  @Setup("setupPayload")
+  public void testSafe(@RangeField("sizes") Integer size)
+      throws JSONWrapperException {
+    safeParser.parse(payload);
+  }
+
+  protected void setupPayload(Integer size) {
+    if (payloadSize != size.intValue()) {
+      payload = makePayload(size.intValue());
+      payloadSize = size.intValue();
+    }
+  }
+}
@@ -17,6 +17,8 @@ package com.google.gwt.jsio.client;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.impl.AbstractJSPrimitiveListWrapper;
+import com.google.gwt.jsio.client.impl.BoxedValueCache;
 import com.google.gwt.junit.client.GWTTestCase;
 
 import java.util.List;
@@ -99,6 +101,21 @@ public class JSONWrapperTest extends GWTTestCase {
     void setHello(String hello);
   }
 
+  /**
+   * Uses the primitive-specialized list types.
+   */
+  @BeanProperties
+  static interface PrimitiveListInterface extends
+      JSWrapper<PrimitiveListInterface> {
+    JSBooleanList getFlags();
+
+    JSIntList getInts();
+
+    JSDoubleList getValues();
+
+    void setInts(JSIntList ints);
+  }
+
   /**
    * Contains getters for all primitive types.
    */
@@ -177,6 +194,23 @@ public class JSONWrapperTest extends GWTTestCase {
     public abstract JSList<Integer> getNumbers();
   }
 
+  /**
+   * Applies default values at read time.
+   */
+  @BeanProperties
+  @LazyDefaults
+  static interface LazyInterface extends JSWrapper<LazyInterface> {
+    JSList<String> getNames();
+
+    int getValue();
+
+    boolean hasNames();
+
+    boolean hasValue();
+
+    void setValue(int value);
+  }
+
   /**
    * Tests interface with a set-only method.
    */
@@ -204,6 +238,21 @@ public class JSONWrapperTest extends GWTTestCase {
     void setValue(int value);
   }
 
+  /**
+   * A tree-like structure whose identity is kept in a side table.
+   */
+  @BeanProperties
+  @IdentityMode(IdentityMode.TABLE)
+  static interface TableTreeInterface extends JSWrapper<TableTreeInterface> {
+    TableTreeInterface getLeft();
+
+    int getValue();
+
+    void setLeft(TableTreeInterface ti);
+
+    void setValue(int value);
+  }
+
   /**
    * Represents nested array data.
    */
@@ -215,12 +264,25 @@ public class JSONWrapperTest extends GWTTestCase {
 
   static {
     ARRAY_INT = new int[] {0, 1, 2, 3, 4};
-    ARRAY_DATA = "{" + "basicInt: 0, " + "rank1: " + makeJsonArray(1) + ", "
-        + "rank2: " + makeJsonArray(2) + ", " + "rank3: " + makeJsonArray(3)
-        + ", " + "string1: ['this', 'is', 'a', 'test']" + ", "
-        + "partialWrappers: [{a:1, b:2}, {a:3, b:4}, {a:5, b:6}]" + "}";
+    ARRAY_DATA = "{" + "\"basicInt\": 0, " + "\"rank1\": " + makeJsonArray(1)
+        + ", " + "\"rank2\": " + makeJsonArray(2) + ", " + "\"rank3\": "
+        + makeJsonArray(3) + ", "
+        + "\"string1\": [\"this\", \"is\", \"a\", \"test\"]" + ", "
+        + "\"partialWrappers\": [{\"a\":1, \"b\":2}, {\"a\":3, \"b\":4}, "
+        + "{\"a\":5, \"b\":6}]" + "}";
   }
 
+  /**
+   * Returns the enumerable property names of an object in iteration order.
+   */
+  private static native String getKeys(JavaScriptObject obj) /*-{
+    var keys = [];
+    for (var key in obj) {
+      keys.push(key);
+    }
+    return keys.join();
+  }-*/;
+
   /**
    * Create a json array of specified rank. Each level will contain
    * <code>ARRAY_INT.length</code> elements, with an array of rank 1 being
@@ -271,14 +333,173 @@ public class JSONWrapperTest extends GWTTestCase {
     assertEquals(new Short((short) 44), ti.getBoxedShort());
   }
 
+  public void testBoxedValueCache() {
+    // A value that no other test reads, so that it is not already cached
+    PrimitiveInterface ti = (PrimitiveInterface) GWT.create(PrimitiveInterface.class);
+    ti.setBoxedInt(new Integer(917));
+    ti.setBoxedDouble(new Double(0.5));
+
+    BoxedValueCache.resetCounters();
+    assertSame(ti.getBoxedInt(), ti.getBoxedInt());
+    assertEquals(new Double(0.5), ti.getBoxedDouble());
+    if (JSIOCounters.isEnabled()) {
+      assertEquals(1, BoxedValueCache.getHitCount());
+      assertEquals(2, BoxedValueCache.getMissCount());
+    } else {
+      assertEquals(0, BoxedValueCache.getHitCount());
+    }
+
+    try {
+      BoxedValueCache.setRange(0, 10);
+      assertNotSame(ti.getBoxedInt(), ti.getBoxedInt());
+    } finally {
+      BoxedValueCache.setRange(BoxedValueCache.DEFAULT_LOW,
+          BoxedValueCache.DEFAULT_HIGH);
+    }
+  }
+
   public void testClassPolicyNamedObject() throws JSONWrapperException {
     ClassPolicyNamedInterface ni = (ClassPolicyNamedInterface) GWT.create(ClassPolicyNamedInterface.class);
 
-    ni.setJSONData("{test:\"Hello world\"}");
+    ni.setJSONData("{\"test\":\"Hello world\"}");
 
     assertEquals("Hello world", ni.getHello());
   }
 
+  public void testDispose() throws JSONWrapperException {
+    TreeInterface ti1 = (TreeInterface) GWT.create(TreeInterface.class);
+    ti1.setJSONData("{\"value\":42}");
+    JavaScriptObject obj = ti1.getJavaScriptObject();
+
+    ti1.dispose();
+    assertNull(ti1.getJavaScriptObject());
+    assertNull(JSFlyweightWrapper.Util.getJavaPeer(obj));
+
+    // The backing object may be attached to a new wrapper
+    TreeInterface ti2 = (TreeInterface) GWT.create(TreeInterface.class);
+    ti2.setJavaScriptObject(obj);
+    assertEquals(42, ti2.getValue());
+  }
+
+  public void testIdentityTable() throws JSONWrapperException {
+    TableTreeInterface ti1 = (TableTreeInterface) GWT.create(TableTreeInterface.class);
+    ti1.setJSONData("{\"value\":42, \"left\":{\"value\":43}}");
+
+    TableTreeInterface left = ti1.getLeft();
+    assertSame(left, ti1.getLeft());
+    assertEquals(43, left.getValue());
+    assertSame(left,
+        JSFlyweightWrapper.Util.getJavaPeer(left.getJavaScriptObject()));
+
+    TableTreeInterface ti2 = (TableTreeInterface) GWT.create(TableTreeInterface.class);
+    try {
+      ti2.setJavaScriptObject(left.getJavaScriptObject());
+      fail("Should have thrown a MultipleWrapperException");
+    } catch (MultipleWrapperException e) {
+      // Expected behavior
+    }
+
+    JavaScriptObject obj = left.getJavaScriptObject();
+    left.setJavaScriptObject(null);
+    ti2.setJavaScriptObject(obj);
+    assertEquals(43, ti2.getValue());
+  }
+
+  public void testInvalidJSONData() {
+    PartialWrapper pw = (PartialWrapper) GWT.create(PartialWrapper.class);
+    try {
+      pw.setJSONData("{\"a\":(function(){return 3;})()}");
+      fail("Should have thrown a JSONWrapperException");
+    } catch (JSONWrapperException e) {
+      // Expected behavior
+    }
+  }
+
+  /**
+   * Tests that LazyDefaults applies default values when properties are read,
+   * leaving the backing object unmodified.
+   */
+  public void testLazyDefaults() throws JSONWrapperException {
+    LazyInterface li = (LazyInterface) GWT.create(LazyInterface.class);
+    li.setJSONData("{}");
+
+    // Attaching the object should not have modified it
+    assertEquals("", getKeys(li.getJavaScriptObject()));
+    assertFalse(li.hasValue());
+    assertEquals(0, li.getValue());
+    assertEquals("", getKeys(li.getJavaScriptObject()));
+
+    li.setValue(42);
+    assertTrue(li.hasValue());
+    assertEquals(42, li.getValue());
+
+    // List defaults are retained so that changes are visible
+    assertFalse(li.hasNames());
+    li.getNames().add("hello");
+    assertTrue(li.hasNames());
+    assertEquals("hello", li.getNames().get(0));
+  }
+
+  /**
+   * Tests walking a list of wrappers with a single accessor.
+   */
+  public void testListCursor() throws JSONWrapperException {
+    ListInterface ai = (ListInterface) GWT.create(ListInterface.class);
+    ai.setJSONData("{\"partialWrappers\":[{\"a\":2, \"b\":3}, {\"a\":4, \"b\":5}]}");
+    JSList<PartialWrapper> list = ai.getPartialWrappers();
+
+    JSListCursor<PartialWrapper> cursor = new JSListCursor<PartialWrapper>(
+        (PartialWrapper) GWT.create(PartialWrapper.class));
+    int total = 0;
+    for (cursor.reset(list); cursor.next();) {
+      assertSame(cursor.get(), cursor.get());
+      total += cursor.get().multiply();
+      assertSame(list.get(cursor.getIndex()).getJavaScriptObject(),
+          cursor.getObject());
+    }
+    assertEquals(26, total);
+    assertEquals(2, cursor.getIndex());
+    assertNull(cursor.getObject());
+
+    // Walking the list must not disturb the identity of its elements
+    assertSame(list.get(0), list.get(0));
+    assertFalse(cursor.reset((JavaScriptObject) null).next());
+  }
+
+  /**
+   * Tests a cursor whose accessor comes from a JSWrapperPool and was last
+   * pointed at an element that another wrapper owns.
+   */
+  public void testListCursorWithPool() throws JSONWrapperException {
+    ListInterface ai = (ListInterface) GWT.create(ListInterface.class);
+    ai.setJSONData("{\"partialWrappers\":[{\"a\":2, \"b\":3}, {\"a\":4, \"b\":5}]}");
+    JSList<PartialWrapper> list = ai.getPartialWrappers();
+    PartialWrapper first = list.get(0);
+
+    JSWrapperPool<PartialWrapper> pool = new JSWrapperPool<PartialWrapper>() {
+      @Override
+      protected PartialWrapper create() {
+        return (PartialWrapper) GWT.create(PartialWrapper.class);
+      }
+    };
+    PartialWrapper accessor = pool.acquire(first.getJavaScriptObject());
+    assertEquals(6, accessor.multiply());
+
+    JSListCursor<PartialWrapper> cursor = new JSListCursor<PartialWrapper>(
+        accessor);
+    int total = 0;
+    for (cursor.reset(list); cursor.next();) {
+      total += cursor.get().multiply();
+    }
+    assertEquals(26, total);
+    pool.release(accessor);
+
+    // The element keeps its original wrapper
+    assertSame(first, list.get(0));
+    assertSame(first,
+        JSFlyweightWrapper.Util.getJavaPeer(first.getJavaScriptObject()));
+  }
+
   /**
    * Test accessors of nested Lists of varying parameter types.
    */
@@ -404,7 +625,7 @@ public class JSONWrapperTest extends GWTTestCase {
 
   public void testNamedObject() throws JSONWrapperException {
     NamedInterface ni = (NamedInterface) GWT.create(NamedInterface.class);
-    ni.setJSONData("{HELLO:\"Hello world\"}");
+    ni.setJSONData("{\"HELLO\":\"Hello world\"}");
 
     assertEquals("Hello world", ni.getHello());
 
@@ -422,7 +643,8 @@ public class JSONWrapperTest extends GWTTestCase {
     assertNull(ti1.getLeft());
     assertNull(ti1.getRight());
 
-    ti1.setJSONData("{value:42, left:{value:43}, right:{value:44}}");
+    ti1.setJSONData("{\"value\":42, \"left\":{\"value\":43}, "
+        + "\"right\":{\"value\":44}}");
     assertNotNull(ti1.getLeft());
     assertNotNull(ti1.getRight());
     assertTrue(ti1.getValue() == 42);
@@ -430,6 +652,32 @@ public class JSONWrapperTest extends GWTTestCase {
     assertTrue(ti1.getRight().getValue() == 44);
   }
 
+  /**
+   * Wrappers created for nested objects must attach to the existing JSO and
+   * retain a 1:1 identity with it.
+   */
+  public void testNestedObjectIdentity() throws JSONWrapperException {
+    TreeInterface ti1 = (TreeInterface) GWT.create(TreeInterface.class);
+    ti1.setJSONData("{\"value\":42, \"left\":{\"value\":43}}");
+
+    TreeInterface left = ti1.getLeft();
+    assertSame(left, ti1.getLeft());
+    assertEquals(43, left.getValue());
+
+    left.setValue(44);
+    assertEquals(44, ti1.getLeft().getValue());
+  }
+
+  public void testObjectShape() {
+    TreeInterface ti1 = (TreeInterface) GWT.create(TreeInterface.class);
+    TreeInterface ti2 = (TreeInterface) GWT.create(TreeInterface.class);
+
+    // Every field should be declared up front, in a stable order
+    assertEquals("left,right,value", getKeys(ti1.getJavaScriptObject()));
+    assertEquals(getKeys(ti1.getJavaScriptObject()),
+        getKeys(ti2.getJavaScriptObject()));
+  }
+
   public void testObjectSetters() {
     TreeInterface ti1 = (TreeInterface) GWT.create(TreeInterface.class);
     assertTrue(ti1 != null);
@@ -459,7 +707,7 @@ public class JSONWrapperTest extends GWTTestCase {
 
   public void testPartialWrapper() throws JSONWrapperException {
     PartialWrapper pw = (PartialWrapper) GWT.create(PartialWrapper.class);
-    pw.setJSONData("{a:3, b:4, c:5}");
+    pw.setJSONData("{\"a\":3, \"b\":4, \"c\":5}");
     assertTrue(12 == pw.multiply());
 
     // Test that we don't override existing getters
@@ -468,7 +716,7 @@ public class JSONWrapperTest extends GWTTestCase {
 
   public void testPolicyNamedObject() throws JSONWrapperException {
     PolicyNamedInterface ni = (PolicyNamedInterface) GWT.create(PolicyNamedInterface.class);
-    ni.setJSONData("{HELLO:\"Hello world\"}");
+    ni.setJSONData("{\"HELLO\":\"Hello world\"}");
 
     assertEquals("Hello world", ni.getHello());
 
@@ -479,6 +727,106 @@ public class JSONWrapperTest extends GWTTestCase {
     assertEquals("Hello world", ni2.getHello());
   }
 
+  public void testPool() throws JSONWrapperException {
+    JSWrapperPool<TreeInterface> pool = new JSWrapperPool<TreeInterface>() {
+      @Override
+      protected TreeInterface create() {
+        return (TreeInterface) GWT.create(TreeInterface.class);
+      }
+    };
+
+    TreeInterface ti = (TreeInterface) GWT.create(TreeInterface.class);
+    ti.setJSONData("{\"value\":42}");
+    JavaScriptObject obj1 = ti.getJavaScriptObject();
+    ti.setJSONData("{\"value\":43}");
+    JavaScriptObject obj2 = ti.getJavaScriptObject();
+    ti.dispose();
+
+    TreeInterface pooled = pool.acquire(obj1);
+    assertEquals(42, pooled.getValue());
+    pool.release(pooled);
+    assertEquals(1, pool.getFreeCount());
+    assertNull(pooled.getJavaScriptObject());
+
+    assertSame(pooled, pool.acquire(obj2));
+    assertEquals(43, pooled.getValue());
+    assertEquals(0, pool.getFreeCount());
+
+    // Rebinding does not make the wrapper the object's peer
+    assertNull(JSFlyweightWrapper.Util.getJavaPeer(obj2));
+  }
+
+  public void testPrimitiveLists() throws JSONWrapperException {
+    PrimitiveListInterface pli = (PrimitiveListInterface) GWT.create(PrimitiveListInterface.class);
+    assertEquals(0, pli.getInts().size());
+
+    pli.setJSONData("{\"ints\":[1,2,3], \"values\":[0.5,1.5], "
+        + "\"flags\":[true,false]}");
+
+    JSIntList ints = pli.getInts();
+    assertEquals(3, ints.size());
+    assertEquals(2, ints.getInt(1));
+    assertEquals(2, ints.setInt(1, 42));
+    assertEquals(42, pli.getInts().getInt(1));
+    ints.addInt(4);
+    assertEquals(4, pli.getInts().size());
+    assertEquals(1, ints.removeInt(0));
+
+    int[] intArray = ints.toIntArray();
+    assertEquals(3, intArray.length);
+    assertEquals(42, intArray[0]);
+    assertEquals(3, intArray[1]);
+    assertEquals(4, intArray[2]);
+
+    JSDoubleList values = pli.getValues();
+    assertEquals(2, values.size());
+    assertTrue(1.5 == values.getDouble(1));
+
+    JSBooleanList flags = pli.getFlags();
+    assertTrue(flags.getBoolean(0));
+    assertFalse(flags.getBoolean(1));
+
+    try {
+      ints.getInt(ints.size());
+      fail("Should have thrown an IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException e) {
+      // Expected behavior
+    }
+
+    PrimitiveListInterface pli2 = (PrimitiveListInterface) GWT.create(PrimitiveListInterface.class);
+    pli2.setInts(ints);
+    assertEquals(42, pli2.getInts().getInt(0));
+  }
+
+  /**
+   * Primitive lists are wrapped directly, so an array shared between two
+   * properties yields distinct wrappers and never receives a back-reference.
+   */
+  public void testPrimitiveListsWithoutIdentity() throws JSONWrapperException {
+    PrimitiveListInterface pli = (PrimitiveListInterface) GWT.create(PrimitiveListInterface.class);
+    pli.setJSONData("{\"ints\":[1,2,3]}");
+    JSIntList ints = pli.getInts();
+
+    PrimitiveListInterface pli2 = (PrimitiveListInterface) GWT.create(PrimitiveListInterface.class);
+    pli2.setInts(ints);
+
+    JSIntList first = pli.getInts();
+    JSIntList second = pli2.getInts();
+    assertNotSame(first, second);
+    assertNotSame(first, pli.getInts());
+
+    // Both wrappers share the backing array
+    first.setInt(0, 42);
+    assertEquals(42, second.getInt(0));
+
+    JavaScriptObject arr = ((AbstractJSPrimitiveListWrapper) first).getJavaScriptObject();
+    assertEquals("0,1,2", getKeys(arr));
+    assertNull(JSFlyweightWrapper.Util.getJavaPeer(arr));
+
+    pli2.setInts(null);
+    assertNull(pli2.getInts());
+  }
+
   public void testPrimitiveSetters() {
     PrimitiveInterface ti = (PrimitiveInterface) GWT.create(PrimitiveInterface.class);
     assertTrue(ti != null);
@@ -507,13 +855,33 @@ public class JSONWrapperTest extends GWTTestCase {
   public void testReadOnly() throws JSONWrapperException {
     ReadOnlyInterface ro = (ReadOnlyInterface) GWT.create(ReadOnlyInterface.class);
     ReadOnlyInterface ro2 = (ReadOnlyInterface) GWT.create(ReadOnlyInterface.class);
-    ro.setJSONData("{hello:'Hello world', numbers:[1,2,3,4]}");
+    ro.setJSONData("{\"hello\":\"Hello world\", \"numbers\":[1,2,3,4]}");
 
     // Read-only objects should allow multiple wrappers per JSO because we
     // can't have the __gwtObject field.
     ro2.setJavaScriptObject(ro.getJavaScriptObject());
   }
 
+  /**
+   * Disposing a rebound wrapper must not remove the identity of the object
+   * from the wrapper that owns it.
+   */
+  public void testRebindKeepsIdentity() throws JSONWrapperException {
+    TreeInterface ti = (TreeInterface) GWT.create(TreeInterface.class);
+    ti.setJSONData("{\"value\":42, \"left\":{\"value\":43}}");
+    TreeInterface left = ti.getLeft();
+    JavaScriptObject obj = left.getJavaScriptObject();
+
+    TreeInterface rebound = (TreeInterface) GWT.create(TreeInterface.class);
+    rebound.dispose();
+    assertEquals(43, rebound.rebind(obj).getValue());
+    rebound.dispose();
+
+    assertSame(left, JSFlyweightWrapper.Util.getJavaPeer(obj));
+    assertSame(left, ti.getLeft());
+    assertEquals(43, left.getValue());
+  }
+
   public void testSetterOnly() {
     SetterOnly so = (SetterOnly) GWT.create(SetterOnly.class);
     SetterOnly so2 = (SetterOnly) GWT.create(SetterOnly.class);
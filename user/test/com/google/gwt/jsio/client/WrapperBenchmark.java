@@ -0,0 +1,303 @@
+/*
+ * Copyright 2008 Google Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.client;
+
+import com.google.gwt.benchmarks.client.Benchmark;
+import com.google.gwt.benchmarks.client.RangeEnum;
+import com.google.gwt.benchmarks.client.RangeField;
+import com.google.gwt.benchmarks.client.Setup;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.jsio.client.JSONInvokerTest.HelloCallbackInt;
+import com.google.gwt.jsio.client.JSONInvokerTest.HelloWrapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the cost of the generated accessors, wrapper creation, JSON
+ * binding, and JSFunction callbacks.
+ */
+public class WrapperBenchmark extends Benchmark {
+
+  /**
+   * The ways in which a property of a JavaScriptObject can be accessed.
+   */
+  protected enum Access {
+    IDENTITY, NO_IDENTITY, READ_ONLY, FLYWEIGHT, POOLED
+  }
+
+  /**
+   * The kinds of property that are accessed.
+   */
+  protected enum Property {
+    INT, BOXED, STRING, WRAPPER
+  }
+
+  @BeanProperties
+  @NoIdentity
+  static interface NoIdentityRecord extends JSWrapper<NoIdentityRecord> {
+    int getValue();
+  }
+
+  @BeanProperties
+  @ReadOnly
+  static interface ReadOnlyRecord extends JSWrapper<ReadOnlyRecord> {
+    int getValue();
+  }
+
+  @BeanProperties
+  static interface Record extends JSWrapper<Record> {
+    Record getChild();
+
+    Integer getCount();
+
+    String getName();
+
+    int getValue();
+
+    void setChild(Record value);
+
+    void setCount(Integer value);
+
+    void setName(String value);
+
+    void setValue(int value);
+  }
+
+  @BeanProperties
+  static interface RecordFlyweight extends JSFlyweightWrapper {
+    int getValue(JavaScriptObject jso);
+  }
+
+  @BeanProperties
+  static interface RecordList extends JSWrapper<RecordList> {
+    JSList<Record> getRecords();
+  }
+
+  protected final List<Integer> iterations = Arrays.asList(1000, 10 * 1000,
+      100 * 1000);
+
+  protected final List<Integer> recordCounts = Arrays.asList(100, 1000,
+      10 * 1000);
+
+  private final HelloCallbackInt callback = new HelloCallbackInt();
+
+  private final Record child = (Record) GWT.create(Record.class);
+
+  private final RecordFlyweight flyweight = (RecordFlyweight) GWT.create(RecordFlyweight.class);
+
+  private HelloWrapper<?> hello;
+
+  private JavaScriptObject[] objects;
+
+  private String payload;
+
+  private final JSWrapperPool<Record> pool = new JSWrapperPool<Record>() {
+    @Override
+    protected Record create() {
+      return (Record) GWT.create(Record.class);
+    }
+  };
+
+  private Record record;
+
+  private static native JavaScriptObject makeObject(int value) /*-{
+    return {'value': value};
+  }-*/;
+
+  private static native JavaScriptObject makeRecord() /*-{
+    return {'value': 1, 'count': 2, 'name': 'three'};
+  }-*/;
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.jsio.JSIOTest";
+  }
+
+  // Required for JUnit
+  public void testAccess() {
+  }
+
+  /**
+   * Wraps fresh objects and reads a property from each.
+   */
+  @Setup("setupObjects")
+  public void testAccess(@RangeEnum(Access.class) Access access,
+      @RangeField("iterations") Integer count) {
+    int n = count.intValue();
+    switch (access) {
+      case IDENTITY:
+        for (int i = 0; i < n; i++) {
+          ((Record) GWT.create(Record.class)).setJavaScriptObject(objects[i]).getValue();
+        }
+        break;
+      case NO_IDENTITY:
+        for (int i = 0; i < n; i++) {
+          ((NoIdentityRecord) GWT.create(NoIdentityRecord.class)).setJavaScriptObject(
+              objects[i]).getValue();
+        }
+        break;
+      case READ_ONLY:
+        for (int i = 0; i < n; i++) {
+          ((ReadOnlyRecord) GWT.create(ReadOnlyRecord.class)).setJavaScriptObject(
+              objects[i]).getValue();
+        }
+        break;
+      case FLYWEIGHT:
+        for (int i = 0; i < n; i++) {
+          flyweight.getValue(objects[i]);
+        }
+        break;
+      case POOLED:
+        for (int i = 0; i < n; i++) {
+          Record pooled = pool.acquire(objects[i]);
+          pooled.getValue();
+          pool.release(pooled);
+        }
+        break;
+    }
+  }
+
+  // Required for JUnit
+  public void testCallback() {
+  }
+
+  @Setup("setupHello")
+  public void testCallback(@RangeField("iterations") Integer count) {
+    for (int i = 0, j = count.intValue(); i < j; i++) {
+      hello.testCallback(2, 3, callback);
+    }
+  }
+
+  // Required for JUnit
+  public void testGetter() {
+  }
+
+  @Setup("setupRecord")
+  public void testGetter(@RangeEnum(Property.class) Property property,
+      @RangeField("iterations") Integer count) {
+    int n = count.intValue();
+    switch (property) {
+      case INT:
+        for (int i = 0; i < n; i++) {
+          record.getValue();
+        }
+        break;
+      case BOXED:
+        for (int i = 0; i < n; i++) {
+          record.getCount();
+        }
+        break;
+      case STRING:
+        for (int i = 0; i < n; i++) {
+          record.getName();
+        }
+        break;
+      case WRAPPER:
+        for (int i = 0; i < n; i++) {
+          record.getChild();
+        }
+        break;
+    }
+  }
+
+  // Required for JUnit
+  public void testParseAndBind() throws JSONWrapperException {
+  }
+
+  /**
+   * Parses a list of records and binds a wrapper to the last one.
+   */
+  @Setup("setupPayload")
+  public void testParseAndBind(@RangeField("recordCounts") Integer count)
+      throws JSONWrapperException {
+    RecordList list = (RecordList) GWT.create(RecordList.class);
+    list.setJSONData(payload);
+    list.getRecords().get(count.intValue() - 1).getValue();
+  }
+
+  // Required for JUnit
+  public void testSetter() {
+  }
+
+  @Setup("setupRecord")
+  public void testSetter(@RangeEnum(Property.class) Property property,
+      @RangeField("iterations") Integer count) {
+    int n = count.intValue();
+    Integer boxed = new Integer(42);
+    switch (property) {
+      case INT:
+        for (int i = 0; i < n; i++) {
+          record.setValue(i);
+        }
+        break;
+      case BOXED:
+        for (int i = 0; i < n; i++) {
+          record.setCount(boxed);
+        }
+        break;
+      case STRING:
+        for (int i = 0; i < n; i++) {
+          record.setName("Hello world");
+        }
+        break;
+      case WRAPPER:
+        for (int i = 0; i < n; i++) {
+          record.setChild(child);
+        }
+        break;
+    }
+  }
+
+  protected void setupHello(Integer count) {
+    if (hello == null) {
+      hello = (HelloWrapper<?>) GWT.create(HelloWrapper.class);
+      hello.constructor("Hello world", 99);
+    }
+  }
+
+  /**
+   * Objects are recreated for each run, since a wrapper that maintains
+   * identity may only be bound to an object once.
+   */
+  protected void setupObjects(Access access, Integer count) {
+    objects = new JavaScriptObject[count.intValue()];
+    for (int i = 0; i < objects.length; i++) {
+      objects[i] = makeObject(i);
+    }
+  }
+
+  protected void setupPayload(Integer count) {
+    StringBuffer json = new StringBuffer("{\"records\":[");
+    for (int i = 0, j = count.intValue(); i < j; i++) {
+      json.append(i == 0 ? "" : ",");
+      json.append("{\"value\":").append(i);
+      json.append(",\"count\":").append(i);
+      json.append(",\"name\":\"Record ").append(i).append("\"}");
+    }
+    payload = json.append("]}").toString();
+  }
+
+  protected void setupRecord(Property property, Integer count) {
+    if (record == null) {
+      child.setJavaScriptObject(makeObject(0));
+      record = (Record) GWT.create(Record.class);
+      record.setJavaScriptObject(makeRecord());
+      record.setChild(child);
+    }
+  }
+}
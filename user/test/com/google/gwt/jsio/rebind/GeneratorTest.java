@@ -0,0 +1,165 @@
+/*
+ * Copyright 2007 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+
+import junit.framework.TestCase;
+
+/**
+ * Runs the generators against the types in the test module without a browser
+ * and checks the statements that they emit. The generated code is not
+ * executed; that is covered by the GWTTestCases.
+ */
+public class GeneratorTest extends TestCase {
+
+  private static final String PACKAGE = "com.google.gwt.jsio.client.";
+
+  private static RebindHarness harness;
+
+  private static TreeLogger logger;
+
+  private static synchronized RebindHarness getHarness()
+      throws UnableToCompleteException {
+    if (harness == null) {
+      logger = RebindHarness.createLogger();
+      TypeOracle oracle = RebindHarness.loadTypeOracle(logger,
+          "com.google.gwt.jsio.JSIOTest");
+      harness = new RebindHarness(oracle);
+    }
+    return harness;
+  }
+
+  public void testCounters() throws UnableToCompleteException {
+    String source = generate(new JSWrapperGenerator(),
+        "JSONWrapperTest.TreeInterface");
+    assertFalse(source.contains("CountersImpl"));
+
+    getHarness().setProperty("jsio.counters", "on");
+    try {
+      source = generate(new JSWrapperGenerator(),
+          "JSONWrapperTest.TreeInterface");
+      assertTrue(source.contains("CountersImpl.count(\"create:" + PACKAGE
+          + "JSONWrapperTest.TreeInterface\");"));
+      assertTrue(source.contains("CountersImpl::countPeer(Ljava/lang/Object;Ljava/lang/String;)("));
+      assertTrue(source.contains(", \"peer:" + PACKAGE
+          + "JSONWrapperTest.TreeInterface\")"));
+    } finally {
+      getHarness().setProperty("jsio.counters", null);
+    }
+  }
+
+  public void testDeterministic() throws UnableToCompleteException {
+    String[] typeNames = {
+        "JSONWrapperTest.ListInterface", "JSONWrapperTest.PrimitiveInterface",
+        "JSONWrapperTest.TreeInterface", "JSONInvokerTest.HelloWrapper"};
+
+    for (String typeName : typeNames) {
+      String first = generate(new JSWrapperGenerator(), typeName);
+      String second = generate(new JSWrapperGenerator(), typeName);
+      assertEquals(typeName, first, second);
+    }
+  }
+
+  public void testFactoryBindingRequiresIdentity()
+      throws UnableToCompleteException {
+    // Load the module outside of the try block so its failures are reported
+    getHarness();
+    try {
+      generate(new JSFlyweightWrapperGenerator(),
+          "JSExporterTest.NoIdentityMathFlyweightWrapper");
+      fail("Should have rejected a factory binding without identity");
+    } catch (UnableToCompleteException e) {
+      // Expected behavior
+    }
+  }
+
+  public void testFlyweight() throws UnableToCompleteException {
+    String source = generate(new JSFlyweightWrapperGenerator(),
+        "JSFlyweightWrapperTest.PrimitiveInterface");
+    assertTrue(source.contains("public native int getUnboxedInt(com.google.gwt.core.client.JavaScriptObject jso) /*-{"));
+    assertTrue(source.contains("return jso.unboxedInt;"));
+    assertTrue(source.contains("return !!jso.unboxedBoolean;"));
+  }
+
+  public void testLatency() throws UnableToCompleteException {
+    String typeName = "JSONInvokerTest.HelloWrapper";
+    String source = generate(new JSWrapperGenerator(), typeName);
+    assertFalse(source.contains("LatencyImpl"));
+
+    getHarness().setProperty("jsio.latency", "on");
+    try {
+      source = generate(new JSWrapperGenerator(), typeName);
+      assertTimedInFinally(source, "\"import:" + PACKAGE + typeName + ".add\"");
+      assertTrue(source.contains("\"export:"));
+    } finally {
+      getHarness().setProperty("jsio.latency", null);
+    }
+  }
+
+  public void testLiveWrappers() throws UnableToCompleteException {
+    String source = generate(new JSWrapperGenerator(),
+        "JSONWrapperTest.TreeInterface");
+    assertTrue(source.contains("public void dispose()"));
+    assertFalse(source.contains("WrapperRegistryImpl"));
+
+    getHarness().setProperty("jsio.liveWrappers", "on");
+    try {
+      source = generate(new JSWrapperGenerator(),
+          "JSONWrapperTest.TreeInterface");
+      assertTrue(source.contains("WrapperRegistryImpl.register(this, \""
+          + PACKAGE + "JSONWrapperTest.TreeInterface\");"));
+      assertTrue(source.contains("WrapperRegistryImpl.unregister(this);"));
+    } finally {
+      getHarness().setProperty("jsio.liveWrappers", null);
+    }
+  }
+
+  public void testReadOnly() throws UnableToCompleteException {
+    String source = generate(new JSWrapperGenerator(),
+        "JSONWrapperTest.ReadOnlyInterface");
+    assertFalse(source.contains("__initializeEmptyFields"));
+    assertFalse(source.contains(".__gwtPeer = this;"));
+    assertFalse(source.contains("throwMultipleWrapperException"));
+
+    source = generate(new JSWrapperGenerator(), "JSONWrapperTest.TreeInterface");
+    assertTrue(source.contains("private native void __initializeEmptyFields(JavaScriptObject jso) /*-{"));
+    assertTrue(source.contains("::__initializeEmptyFields(Lcom/google/gwt/core/client/JavaScriptObject;)("));
+    assertTrue(source.contains(".__gwtPeer = this;"));
+    assertTrue(source.contains("@com.google.gwt.jsio.client.impl.JSONWrapperUtil::throwMultipleWrapperException()();"));
+  }
+
+  /**
+   * Asserts that the timer stopped with <code>key</code> is started before a
+   * <code>try</code> block and stopped in its <code>finally</code> block.
+   */
+  private void assertTimedInFinally(String source, String key) {
+    int stop = source.indexOf(key);
+    assertTrue(key, stop >= 0);
+    int finallyBlock = source.lastIndexOf("} finally {", stop);
+    int tryBlock = source.lastIndexOf("try {", finallyBlock);
+    int start = source.lastIndexOf("var __start = ", tryBlock);
+    assertTrue(key + " is not stopped in a finally block", start >= 0
+        && tryBlock > start && finallyBlock > tryBlock);
+  }
+
+  private String generate(JSWrapperGenerator generator, String typeName)
+      throws UnableToCompleteException {
+    return getHarness().generate(logger, generator, PACKAGE + typeName);
+  }
+}
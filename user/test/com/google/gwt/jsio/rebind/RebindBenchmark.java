@@ -0,0 +1,261 @@
+/*
+ * Copyright 2007 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Measures the throughput of the rebind pipeline against synthetic wrapper
+ * types. This is a standalone program rather than a test case:
+ * 
+ * <pre>
+ * java -cp gwt-dev.jar:gwt-user.jar:gwt-api-interop.jar:&lt;test classes&gt;:&lt;work dir&gt; \
+ *     com.google.gwt.jsio.rebind.RebindBenchmark &lt;work dir&gt;
+ * </pre>
+ * 
+ * The synthetic sources are written into the work directory, which must also
+ * be on the classpath so that the module can be loaded. Each benchmark is
+ * reported in operations per second and, if the JVM can measure per-thread
+ * allocation, bytes allocated per operation.
+ */
+public class RebindBenchmark {
+
+  /**
+   * A unit of work to measure.
+   */
+  private interface Operation {
+    void run() throws UnableToCompleteException;
+  }
+
+  private static final String MODULE = "com.google.gwt.jsio.bench.RebindBenchmark";
+
+  private static final String PACKAGE = "com.google.gwt.jsio.bench.client";
+
+  private static final int[] PROPERTY_COUNTS = {10, 100, 1000};
+
+  private static final int METHOD_COUNT = 100;
+
+  private static final int NESTING_DEPTH = 10;
+
+  private static final long MEASURE_MILLIS = 3000;
+
+  private static final long WARMUP_MILLIS = 1000;
+
+  private RebindBenchmark() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 1) {
+      System.err.println("Usage: RebindBenchmark <work dir>");
+      System.exit(1);
+    }
+
+    File dir = new File(args[0]);
+    writeSources(dir);
+
+    TreeLogger logger = RebindHarness.createLogger();
+
+    Thread.currentThread().setContextClassLoader(
+        new URLClassLoader(new URL[] {dir.toURI().toURL()},
+            Thread.currentThread().getContextClassLoader()));
+    TypeOracle oracle = RebindHarness.loadTypeOracle(logger, MODULE);
+    GeneratorContext context = new RebindHarness(oracle).getContext();
+
+    System.out.println("Benchmark\tops/s\tbytes/op");
+    for (int count : PROPERTY_COUNTS) {
+      run(logger, context, new JSWrapperGenerator(), "Properties" + count);
+      run(logger, context, new JSFlyweightWrapperGenerator(), "Flyweight"
+          + count);
+    }
+    run(logger, context, new JSWrapperGenerator(), "Node0");
+    run(logger, context, new JSWrapperGenerator(), "Callbacks");
+    run(logger, context, new JSWrapperGenerator(), "Imports");
+  }
+
+  /**
+   * Returns a function that reports the number of bytes allocated by the
+   * current thread, or <code>null</code> if the JVM does not support it.
+   */
+  private static Method findAllocationCounter() {
+    try {
+      Class<?> clazz = Class.forName("com.sun.management.ThreadMXBean");
+      if (clazz.isInstance(ManagementFactory.getThreadMXBean())) {
+        return clazz.getMethod("getThreadAllocatedBytes", long.class);
+      }
+    } catch (ClassNotFoundException e) {
+      // Not supported
+    } catch (NoSuchMethodException e) {
+      // Not supported
+    }
+    return null;
+  }
+
+  private static long measure(Operation op, long millis, Method counter,
+      long[] allocated) throws Exception {
+    long threadId = Thread.currentThread().getId();
+    Object bean = ManagementFactory.getThreadMXBean();
+    long startBytes = counter == null ? 0
+        : ((Long) counter.invoke(bean, threadId)).longValue();
+
+    long end = System.currentTimeMillis() + millis;
+    long ops = 0;
+    do {
+      op.run();
+      ops++;
+    } while (System.currentTimeMillis() < end);
+
+    if (counter != null) {
+      allocated[0] = ((Long) counter.invoke(bean, threadId)).longValue()
+          - startBytes;
+    }
+    return ops;
+  }
+
+  private static void report(String name, long ops, long[] allocated,
+      Method counter) {
+    double opsPerSecond = ops * 1000.0 / MEASURE_MILLIS;
+    String bytesPerOp = counter == null ? "n/a"
+        : String.valueOf(allocated[0] / ops);
+    System.out.println(name + "\t" + Math.round(opsPerSecond) + "\t"
+        + bytesPerOp);
+  }
+
+  /**
+   * Measures a generator and its method extraction against one type.
+   */
+  private static void run(final TreeLogger logger,
+      final GeneratorContext context, final JSWrapperGenerator generator,
+      String simpleName) throws Exception {
+    final String typeName = PACKAGE + "." + simpleName;
+    final TypeOracle oracle = context.getTypeOracle();
+    final JClassType type = oracle.getType(typeName);
+    Method counter = findAllocationCounter();
+    long[] allocated = new long[1];
+
+    Operation generate = new Operation() {
+      public void run() throws UnableToCompleteException {
+        generator.generate(logger, context, typeName);
+      }
+    };
+    measure(generate, WARMUP_MILLIS, counter, allocated);
+    report(generator.getClass().getSimpleName() + "." + simpleName, measure(
+        generate, MEASURE_MILLIS, counter, allocated), allocated, counter);
+
+    Operation extract = new Operation() {
+      public void run() throws UnableToCompleteException {
+        TaskFactory.extractMethods(logger, oracle, type,
+            generator.getPolicy());
+      }
+    };
+    measure(extract, WARMUP_MILLIS, counter, allocated);
+    report("TaskFactory." + simpleName, measure(extract, MEASURE_MILLIS,
+        counter, allocated), allocated, counter);
+  }
+
+  private static void writeFile(File dir, String path, String contents)
+      throws IOException {
+    File file = new File(dir, path);
+    file.getParentFile().mkdirs();
+    FileWriter out = new FileWriter(file);
+    try {
+      out.write(contents);
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Writes the benchmark module and its synthetic wrapper types.
+   */
+  private static void writeSources(File dir) throws IOException {
+    String packagePath = PACKAGE.replace('.', '/') + "/";
+
+    writeFile(dir, MODULE.replace('.', '/') + ".gwt.xml",
+        "<module><inherits name=\"com.google.gwt.jsio.JSIO\" /></module>");
+
+    String header = "package " + PACKAGE + ";\n"
+        + "import com.google.gwt.core.client.JavaScriptObject;\n"
+        + "import com.google.gwt.jsio.client.*;\n";
+
+    // Bean properties of a mix of types
+    String[] propertyTypes = {"int", "String", "Double", "JSList<Integer>"};
+    for (int count : PROPERTY_COUNTS) {
+      StringBuilder wrapper = new StringBuilder(header);
+      StringBuilder flyweight = new StringBuilder(header);
+      wrapper.append("@BeanProperties public interface Properties").append(
+          count).append(" extends JSWrapper<Properties").append(count).append(
+          "> {\n");
+      flyweight.append("@BeanProperties public interface Flyweight").append(
+          count).append(" extends JSFlyweightWrapper {\n");
+
+      for (int i = 0; i < count; i++) {
+        String type = propertyTypes[i % propertyTypes.length];
+        wrapper.append(type).append(" getP").append(i).append("();\n");
+        wrapper.append("void setP").append(i).append("(").append(type).append(
+            " value);\n");
+        flyweight.append(type).append(" getP").append(i).append(
+            "(JavaScriptObject jso);\n");
+        flyweight.append("void setP").append(i).append(
+            "(JavaScriptObject jso, ").append(type).append(" value);\n");
+      }
+
+      writeFile(dir, packagePath + "Properties" + count + ".java",
+          wrapper.append("}\n").toString());
+      writeFile(dir, packagePath + "Flyweight" + count + ".java",
+          flyweight.append("}\n").toString());
+    }
+
+    // A chain of wrappers, each holding a list of the next
+    for (int i = 0; i < NESTING_DEPTH; i++) {
+      String body = i == NESTING_DEPTH - 1 ? "int getValue();\n"
+          : "JSList<Node" + (i + 1) + "> getChildren();\n";
+      writeFile(dir, packagePath + "Node" + i + ".java", header
+          + "@BeanProperties public interface Node" + i
+          + " extends JSWrapper<Node" + i + "> {\n" + body + "}\n");
+    }
+
+    // Callbacks and plain imported methods
+    writeFile(dir, packagePath + "Callback.java", header
+        + "public class Callback extends JSFunction {\n"
+        + "public int call(int a, String b) { return a; }\n}\n");
+
+    StringBuilder callbacks = new StringBuilder(header);
+    StringBuilder imports = new StringBuilder(header);
+    callbacks.append("public interface Callbacks extends JSWrapper<Callbacks> {\n");
+    imports.append("public interface Imports extends JSWrapper<Imports> {\n");
+    for (int i = 0; i < METHOD_COUNT; i++) {
+      callbacks.append("void register").append(i).append(
+          "(Callback callback);\n");
+      imports.append("int method").append(i).append("(int a, String b);\n");
+    }
+    writeFile(dir, packagePath + "Callbacks.java",
+        callbacks.append("}\n").toString());
+    writeFile(dir, packagePath + "Imports.java",
+        imports.append("}\n").toString());
+  }
+}
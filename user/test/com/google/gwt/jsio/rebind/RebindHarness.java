@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.jsio.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.cfg.ModuleDef;
+import com.google.gwt.dev.cfg.ModuleDefLoader;
+import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the generators outside of a GWT compilation so that they may be tested
+ * and measured without a browser. Only the generators are run; the generated
+ * source, including its JSNI, is returned as text and is not compiled or
+ * executed.
+ */
+class RebindHarness {
+
+  /**
+   * Reports a method of the generator environment that the harness does not
+   * emulate.
+   */
+  private static UnsupportedOperationException unsupported(Method method) {
+    return new UnsupportedOperationException("RebindHarness does not emulate "
+        + method.getDeclaringClass().getSimpleName() + "." + method.getName()
+        + "(); a generator path that needs it cannot be run by the harness");
+  }
+
+  /**
+   * Creates a logger that only reports warnings and errors.
+   */
+  static TreeLogger createLogger() {
+    PrintWriterTreeLogger logger = new PrintWriterTreeLogger();
+    logger.setMaxDetail(TreeLogger.WARN);
+    return logger;
+  }
+
+  /**
+   * Loads a module from the classpath and returns its TypeOracle.
+   */
+  static TypeOracle loadTypeOracle(TreeLogger logger, String moduleName)
+      throws UnableToCompleteException {
+    ModuleDef module = ModuleDefLoader.loadFromClassPath(logger, moduleName);
+    return module.getTypeOracle(logger);
+  }
+
+  private final GeneratorContext context;
+
+  private final Map<String, String> properties = new HashMap<String, String>();
+
+  private final Map<String, StringWriter> sources = new HashMap<String, StringWriter>();
+
+  /**
+   * Creates a harness that accepts every type that is generated. Deferred
+   * binding properties have no value unless set with {@link #setProperty}, so
+   * their defaults will be used.
+   */
+  RebindHarness(final TypeOracle oracle) {
+    final PropertyOracle propertyOracle = (PropertyOracle) Proxy.newProxyInstance(
+        RebindHarness.class.getClassLoader(),
+        new Class<?>[] {PropertyOracle.class}, new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args)
+              throws Throwable {
+            if (!method.getName().equals("getPropertyValue")) {
+              throw unsupported(method);
+            }
+            String value = properties.get(args[1]);
+            if (value == null) {
+              throw new BadPropertyValueException((String) args[1]);
+            }
+            return value;
+          }
+        });
+
+    context = (GeneratorContext) Proxy.newProxyInstance(
+        RebindHarness.class.getClassLoader(),
+        new Class<?>[] {GeneratorContext.class}, new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("commit")) {
+              return null;
+            } else if (name.equals("getPropertyOracle")) {
+              return propertyOracle;
+            } else if (name.equals("getTypeOracle")) {
+              return oracle;
+            } else if (name.equals("tryCreate")) {
+              StringWriter source = new StringWriter();
+              sources.put(args[1] + "." + args[2], source);
+              return new PrintWriter(source);
+            }
+            throw unsupported(method);
+          }
+        });
+  }
+
+  /**
+   * Runs a generator and returns the source that it produced.
+   */
+  String generate(TreeLogger logger, JSWrapperGenerator generator,
+      String typeName) throws UnableToCompleteException {
+    String createdName = generator.generate(logger, context, typeName);
+    StringWriter source = sources.remove(createdName);
+    if (source == null) {
+      throw new IllegalStateException("The generator returned " + createdName
+          + " for " + typeName + " without creating it");
+    }
+    return source.toString();
+  }
+
+  GeneratorContext getContext() {
+    return context;
+  }
+
+  /**
+   * Sets the value of a deferred-binding property, or clears it if
+   * <code>value</code> is <code>null</code>.
+   */
+  void setProperty(String name, String value) {
+    if (value == null) {
+      properties.remove(name);
+    } else {
+      properties.put(name, value);
+    }
+  }
+}